@@ -29,6 +29,7 @@ public class AddEditTaskActivity extends AppCompatActivity {
     public static final String EXTRA_PRIORITY = "org.example.smarttasks.EXTRA_PRIORITY";
     public static final String EXTRA_IMPORTANCE = "org.example.smarttasks.EXTRA_IMPORTANCE";
     public static final String EXTRA_DUE_DATE = "org.example.smarttasks.EXTRA_DUE_DATE";
+    private static final String STATE_DUE_DATE = "dueDate";
 
     private EditText editTextTitle;
     private EditText editTextDescription;
@@ -50,7 +51,14 @@ public class AddEditTaskActivity extends AppCompatActivity {
 
         setupSpinners();
         setupClickListeners();
-        loadTaskData();
+        loadTaskData(savedInstanceState);
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        // The text fields restore themselves
+        outState.putLong(STATE_DUE_DATE, dueDate);
     }
 
     private void setupSpinners() {
@@ -70,21 +78,29 @@ public class AddEditTaskActivity extends AppCompatActivity {
         });
     }
 
-    private void loadTaskData() {
+    private void loadTaskData(Bundle savedInstanceState) {
         Intent intent = getIntent();
         if (intent.hasExtra(EXTRA_ID)) {
             setTitle("Edit Task");
-            editTextTitle.setText(intent.getStringExtra(EXTRA_TITLE));
-            editTextDescription.setText(intent.getStringExtra(EXTRA_DESCRIPTION));
-            
-            String priorityStr = intent.getStringExtra(EXTRA_PRIORITY);
-            String importanceStr = intent.getStringExtra(EXTRA_IMPORTANCE);
-            
-            spinnerPriority.setText(priorityStr, false);
-            spinnerImportance.setText(importanceStr, false);
-            
-            dueDate = intent.getLongExtra(EXTRA_DUE_DATE, System.currentTimeMillis());
-            updateDueDateButton();
+            if (savedInstanceState != null) {
+                dueDate = savedInstanceState.getLong(STATE_DUE_DATE, dueDate);
+                updateDueDateButton();
+                return;
+            }
+            // One read by id at most; saving reads the same cached instance back
+            TaskCache.getInstance(this).load(intent.getIntExtra(EXTRA_ID, -1)).observe(this, task -> {
+                if (task == null) {
+                    Toast.makeText(this, "This task no longer exists", Toast.LENGTH_SHORT).show();
+                    finish();
+                    return;
+                }
+                editTextTitle.setText(task.getTitle());
+                editTextDescription.setText(task.getDescription());
+                spinnerPriority.setText(task.getPriority().name(), false);
+                spinnerImportance.setText(task.getImportance().name(), false);
+                dueDate = task.getDueDate();
+                updateDueDateButton();
+            });
         } else {
             setTitle("Add Task");
             updateDueDateButton();
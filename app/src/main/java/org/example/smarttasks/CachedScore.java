@@ -0,0 +1,37 @@
+package org.example.smarttasks;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/** Persistent tier of the Hugging Face score cache, keyed by a hash of model path and input text. */
+@Entity(tableName = "hf_score_cache", indices = {@Index("storedAt")})
+public class CachedScore {
+    @PrimaryKey
+    @NonNull
+    private String key;
+    private Double importance;
+    private Double urgency;
+    private long storedAt; // timestamp
+
+    public CachedScore(@NonNull String key, Double importance, Double urgency, long storedAt) {
+        this.key = key;
+        this.importance = importance;
+        this.urgency = urgency;
+        this.storedAt = storedAt;
+    }
+
+    @NonNull
+    public String getKey() { return key; }
+    public void setKey(@NonNull String key) { this.key = key; }
+
+    public Double getImportance() { return importance; }
+    public void setImportance(Double importance) { this.importance = importance; }
+
+    public Double getUrgency() { return urgency; }
+    public void setUrgency(Double urgency) { this.urgency = urgency; }
+
+    public long getStoredAt() { return storedAt; }
+    public void setStoredAt(long storedAt) { this.storedAt = storedAt; }
+}
@@ -0,0 +1,21 @@
+package org.example.smarttasks;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface CachedScoreDao {
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<CachedScore> scores);
+
+    // Callers keep keys under SQLite's bind-variable limit
+    @Query("SELECT * FROM hf_score_cache WHERE `key` IN (:keys) AND storedAt >= :minStoredAt")
+    List<CachedScore> getFresh(List<String> keys, long minStoredAt);
+
+    @Query("DELETE FROM hf_score_cache WHERE storedAt < :minStoredAt")
+    int deleteOlderThan(long minStoredAt);
+}
@@ -32,4 +32,14 @@ public class Converters {
     public static String statusToString(Task.Status status) {
         return status == null ? null : status.name();
     }
+
+    @TypeConverter
+    public static PendingOp.Op fromOpString(String value) {
+        return value == null ? null : PendingOp.Op.valueOf(value);
+    }
+
+    @TypeConverter
+    public static String opToString(PendingOp.Op op) {
+        return op == null ? null : op.name();
+    }
 }
@@ -19,10 +19,8 @@ public class DummyDataGenerator {
         // Generate dummy tasks
         List<Task> dummyTasks = generateDummyTasks();
         
-        // Insert dummy tasks
-        for (Task task : dummyTasks) {
-            repository.insert(task);
-        }
+        // Insert dummy tasks in bulk
+        repository.insertAll(dummyTasks);
     }
     
     private static void clearAllTasks(TaskRepository repository) {
@@ -0,0 +1,82 @@
+package org.example.smarttasks;
+
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import org.example.smarttasks.metrics.Counter;
+import org.example.smarttasks.metrics.Metrics;
+
+/**
+ * A background stage where the newest input wins. At most one run is in flight; inputs that
+ * arrive meanwhile replace each other, so only the newest one runs next and the rest are
+ * skipped. A run can poll its {@code superseded} flag to stop early once a newer input is
+ * waiting. Skipped and superseded inputs are counted as {@code <name>.skipped} and
+ * {@code <name>.superseded}.
+ */
+public class LatestOnlyStage<T> {
+
+    public interface Work<T> {
+        /** Processes {@code input}; may return early once {@code superseded} turns true. */
+        void run(T input, BooleanSupplier superseded);
+    }
+
+    private final Executor executor;
+    private final Work<T> work;
+    private final Counter skipped;
+    private final Counter superseded;
+
+    // Guarded by this
+    private T pending;
+    private boolean running;
+    // Bumped per input; a run is superseded once it moves past the run's own
+    private volatile long generation;
+
+    public LatestOnlyStage(String name, Executor executor, Work<T> work) {
+        this.executor = executor;
+        this.work = work;
+        this.skipped = Metrics.get().counter(name + ".skipped");
+        this.superseded = Metrics.get().counter(name + ".superseded");
+    }
+
+    /** Queues {@code input} (not null) in place of any input still waiting. Any thread. */
+    public void submit(T input) {
+        synchronized (this) {
+            if (pending != null) {
+                skipped.inc();
+            } else if (running) {
+                superseded.inc();
+            }
+            pending = input;
+            generation++;
+            if (running) return;
+            running = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        T input = null;
+        try {
+            while (true) {
+                long runGeneration;
+                synchronized (this) {
+                    if (pending == null) {
+                        running = false;
+                        return;
+                    }
+                    input = pending;
+                    pending = null;
+                    runGeneration = generation;
+                }
+                work.run(input, () -> generation != runGeneration);
+                input = null;
+            }
+        } finally {
+            if (input != null) {
+                // The run threw; the next submit starts a new drain
+                synchronized (this) {
+                    running = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.smarttasks;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Sync outbox row: the change still owed to the server for one task. There is at most one
+ * row per task, so bursts of edits collapse into a single operation.
+ */
+@Entity(tableName = "sync_outbox", indices = {@Index("enqueuedAt")})
+public class PendingOp {
+    public enum Op {
+        INSERT, UPDATE, DELETE
+    }
+
+    @PrimaryKey
+    private int taskId;
+    @NonNull
+    private Op op;
+    // Sent with the change so a retried request is applied once; renewed whenever the op changes
+    @NonNull
+    private String idempotencyKey;
+    // Timestamp of the first change still pending; for a DELETE, when the task was deleted
+    private long enqueuedAt;
+
+    public PendingOp(int taskId, @NonNull Op op, @NonNull String idempotencyKey, long enqueuedAt) {
+        this.taskId = taskId;
+        this.op = op;
+        this.idempotencyKey = idempotencyKey;
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    /**
+     * The single operation equivalent to {@code pending} followed by {@code next}:
+     * insert+update stays an insert, anything+delete is a delete, and a write after a
+     * delete becomes an update (an upsert on the server).
+     */
+    public static Op coalesce(Op pending, Op next) {
+        if (pending == null) return next;
+        if (next == Op.DELETE) return Op.DELETE;
+        if (pending == Op.INSERT) return Op.INSERT;
+        return Op.UPDATE;
+    }
+
+    /**
+     * The outbox row after {@code op} happens at {@code now} on top of {@code pending} (or null).
+     * A delete is stamped with its own time, since merging compares it with server edits that
+     * may be newer than the earlier changes it replaced.
+     */
+    public static PendingOp next(PendingOp pending, int taskId, @NonNull Op op,
+                                 @NonNull String idempotencyKey, long now) {
+        Op merged = coalesce(pending != null ? pending.getOp() : null, op);
+        long enqueuedAt = pending != null && op != Op.DELETE ? pending.getEnqueuedAt() : now;
+        return new PendingOp(taskId, merged, idempotencyKey, enqueuedAt);
+    }
+
+    public int getTaskId() { return taskId; }
+    public void setTaskId(int taskId) { this.taskId = taskId; }
+
+    @NonNull
+    public Op getOp() { return op; }
+    public void setOp(@NonNull Op op) { this.op = op; }
+
+    @NonNull
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(@NonNull String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public long getEnqueuedAt() { return enqueuedAt; }
+    public void setEnqueuedAt(long enqueuedAt) { this.enqueuedAt = enqueuedAt; }
+}
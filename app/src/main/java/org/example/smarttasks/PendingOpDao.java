@@ -0,0 +1,37 @@
+package org.example.smarttasks;
+
+import android.database.Cursor;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface PendingOpDao {
+    @Query("SELECT * FROM sync_outbox WHERE taskId = :taskId")
+    PendingOp get(int taskId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void put(PendingOp op);
+
+    // Oldest changes with the current task row (null task columns if it is gone), for streaming uploads
+    @Query("SELECT o.taskId AS outboxTaskId, o.op AS outboxOp, o.idempotencyKey AS outboxKey, t.* "
+            + "FROM sync_outbox o LEFT JOIN tasks t ON t.id = o.taskId ORDER BY o.enqueuedAt, o.taskId LIMIT :limit")
+    Cursor getOldestWithTasks(int limit);
+
+    // Only removes the row if no newer change replaced it while the request was in flight
+    @Query("DELETE FROM sync_outbox WHERE taskId = :taskId AND idempotencyKey = :idempotencyKey")
+    int remove(int taskId, String idempotencyKey);
+
+    // Callers keep ids under SQLite's bind-variable limit
+    @Query("SELECT * FROM sync_outbox WHERE taskId IN (:taskIds)")
+    List<PendingOp> getForTasks(List<Integer> taskIds);
+
+    @Query("DELETE FROM sync_outbox WHERE taskId IN (:taskIds)")
+    void removeAll(List<Integer> taskIds);
+
+    @Query("SELECT COUNT(*) FROM sync_outbox")
+    int count();
+}
@@ -0,0 +1,372 @@
+package org.example.smarttasks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Tasks in final ranking order (persisted score + due points DESC, then dueDate, createdAt, id),
+ * kept in an order-statistics treap so one changed task is re-ranked in O(log n) instead of
+ * re-sorting the list. Positions are looked up and ranges iterated in O(log n) as well.
+ *
+ * A task's key is captured when it is put, so later changes to the same {@code Task} object do
+ * not reorder it until it is put again. Due points and urgency are computed against the clock at
+ * that time and cached on the task; a timer wheel holds the next time each task crosses a due
+ * boundary, and {@link #refreshDue()} re-ranks only the tasks whose boundary has passed.
+ * Thread-safe; lock on the index to make several calls atomic.
+ */
+public class RankedIndex {
+    static final int DUE_WEIGHT = 2;
+    // Due boundaries are honoured to within this
+    private static final long DUE_TICK_MS = 1000;
+
+    private static final class Node {
+        final Task task;
+        final int rank;
+        final long dueDate;
+        final long createdAt;
+        final int id;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(Task task, int duePoints, int priority) {
+            this.task = task;
+            this.rank = task.getScore() + DUE_WEIGHT * duePoints;
+            this.dueDate = task.getDueDate();
+            this.createdAt = task.getCreatedAt();
+            this.id = task.getId();
+            this.priority = priority;
+        }
+    }
+
+    private final LongSupplier clock;
+    private final Map<Integer, Node> byId = new HashMap<>();
+    private final TimerWheel dueChanges;
+    private Node root;
+    // xorshift state for node priorities
+    private int seed = 0x2545F491;
+    // Second result of split()
+    private Node splitRight;
+
+    public RankedIndex(LongSupplier clock) {
+        this.clock = clock;
+        this.dueChanges = new TimerWheel(DUE_TICK_MS, clock.getAsLong());
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    public synchronized boolean contains(int id) {
+        return byId.containsKey(id);
+    }
+
+    /**
+     * Adds the task, or moves it to its new position if a task with its id is present. The task's
+     * due state is set as of now.
+     */
+    public synchronized void put(Task task) {
+        put(task, clock.getAsLong());
+    }
+
+    /**
+     * Adds or re-ranks each task against one clock reading; of two tasks with the same id the
+     * later one wins. Rather than one insert per task, the tasks are sorted by key, built into a
+     * treap in one linear pass and merged into the index. From
+     * {@link TaskOrganizerAI#PARALLEL_THRESHOLD} tasks up, on a multi-core device, the due state
+     * and the sort run on the fork/join pool.
+     */
+    public void putAll(Collection<Task> tasks) {
+        putAll(tasks, TaskOrganizerAI.PARALLEL_THRESHOLD);
+    }
+
+    /** As above, going parallel from {@code parallelThreshold} tasks up instead of the default. */
+    public void putAll(Collection<Task> tasks, int parallelThreshold) {
+        putAll(tasks, TaskOrganizerAI.runsParallel(tasks.size(), parallelThreshold));
+    }
+
+    synchronized void putAll(Collection<Task> tasks, boolean parallel) {
+        if (tasks.isEmpty()) return;
+        long now = clock.getAsLong();
+        Map<Integer, Task> latest = new HashMap<>();
+        for (Task task : tasks) {
+            latest.put(task.getId(), task);
+        }
+        Task[] source = latest.values().toArray(new Task[0]);
+        int n = source.length;
+        for (Task task : source) {
+            remove(task.getId());
+        }
+
+        // keys[3i] = rank, keys[3i+1] = dueDate, keys[3i+2] = createdAt
+        int[] duePoints = new int[n];
+        long[] nextChange = new long[n];
+        long[] keys = new long[3 * n];
+        int[] order = new int[n];
+        TaskOrganizerAI.forEachRange(n, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                Task task = source[i];
+                duePoints[i] = TaskOrganizerAI.computeDuePoints(task, now);
+                task.setDueState(duePoints[i], TaskOrganizerAI.isTaskUrgent(task, now));
+                nextChange[i] = TaskOrganizerAI.nextDueChange(task, now);
+                keys[3 * i] = task.getScore() + DUE_WEIGHT * duePoints[i];
+                keys[3 * i + 1] = task.getDueDate();
+                keys[3 * i + 2] = task.getCreatedAt();
+                order[i] = i;
+            }
+        });
+        TaskOrganizerAI.sortByKeys(order, keys, parallel);
+        breakTiesById(order, keys, source);
+
+        // Cartesian tree over the sorted run: the right spine is kept on a stack
+        Node[] spine = new Node[n];
+        int depth = 0;
+        for (int i : order) {
+            Node node = new Node(source[i], duePoints[i], nextPriority());
+            byId.put(node.id, node);
+            if (nextChange[i] != Long.MAX_VALUE) {
+                dueChanges.schedule(node.id, nextChange[i]);
+            }
+            Node last = null;
+            while (depth > 0 && spine[depth - 1].priority < node.priority) {
+                last = spine[--depth];
+                update(last);
+            }
+            node.left = last;
+            if (depth > 0) {
+                spine[depth - 1].right = node;
+            }
+            spine[depth++] = node;
+        }
+        Node built = spine[0];
+        while (depth > 0) {
+            update(spine[--depth]);
+        }
+        root = union(root, built);
+    }
+
+    private void put(Task task, long now) {
+        remove(task.getId());
+        int duePoints = TaskOrganizerAI.computeDuePoints(task, now);
+        task.setDueState(duePoints, TaskOrganizerAI.isTaskUrgent(task, now));
+        Node node = new Node(task, duePoints, nextPriority());
+        byId.put(node.id, node);
+        long nextChange = TaskOrganizerAI.nextDueChange(task, now);
+        if (nextChange != Long.MAX_VALUE) {
+            dueChanges.schedule(node.id, nextChange);
+        }
+        Node left = split(root, node);
+        root = merge(merge(left, node), splitRight);
+        splitRight = null;
+    }
+
+    /** Returns whether a task with this id was present. */
+    public synchronized boolean remove(int id) {
+        Node node = byId.remove(id);
+        if (node == null) return false;
+        dueChanges.cancel(id);
+        root = erase(root, node);
+        return true;
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        dueChanges.clear();
+        root = null;
+    }
+
+    /**
+     * Re-ranks the tasks whose due points or urgency changed since they were put, as copies so a
+     * list still showing the old objects sees the change. Returns how many were re-ranked.
+     */
+    public synchronized int refreshDue() {
+        long now = clock.getAsLong();
+        List<Integer> crossed = new ArrayList<>();
+        dueChanges.advance(now, crossed::add);
+        for (int id : crossed) {
+            put(new Task(byId.get(id).task), now);
+        }
+        return crossed.size();
+    }
+
+    /** When {@link #refreshDue()} should run next (ms, possibly early), or Long.MAX_VALUE if never. */
+    public synchronized long nextDueRefresh() {
+        return dueChanges.nextWakeupMs();
+    }
+
+    /** Position of the task in the ranking, or -1 if it is not indexed. */
+    public synchronized int indexOf(int id) {
+        Node node = byId.get(id);
+        if (node == null) return -1;
+        int position = 0;
+        Node t = root;
+        while (t != node) {
+            if (compare(node, t) < 0) {
+                t = t.left;
+            } else {
+                position += size(t.left) + 1;
+                t = t.right;
+            }
+        }
+        return position + size(node.left);
+    }
+
+    /** Task at {@code position} in the ranking. */
+    public synchronized Task get(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("position " + position + ", size " + size());
+        }
+        Node t = root;
+        while (true) {
+            int leftSize = size(t.left);
+            if (position < leftSize) {
+                t = t.left;
+            } else if (position == leftSize) {
+                return t.task;
+            } else {
+                position -= leftSize + 1;
+                t = t.right;
+            }
+        }
+    }
+
+    /** Up to {@code count} tasks starting at {@code from}, in ranking order. */
+    public synchronized List<Task> range(int from, int count) {
+        List<Task> out = new ArrayList<>(Math.max(0, Math.min(count, size() - from)));
+        // Path to the first node; each pending node still owes itself and its right subtree
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        Node t = root;
+        int k = from;
+        while (t != null) {
+            int leftSize = size(t.left);
+            if (k < leftSize) {
+                stack.push(t);
+                t = t.left;
+            } else if (k == leftSize) {
+                stack.push(t);
+                break;
+            } else {
+                k -= leftSize + 1;
+                t = t.right;
+            }
+        }
+        while (out.size() < count && !stack.isEmpty()) {
+            Node node = stack.pop();
+            out.add(node.task);
+            for (Node c = node.right; c != null; c = c.left) {
+                stack.push(c);
+            }
+        }
+        return out;
+    }
+
+    /** Splits into the nodes ordered before {@code key} (returned) and the rest ({@link #splitRight}). */
+    private Node split(Node t, Node key) {
+        if (t == null) {
+            splitRight = null;
+            return null;
+        }
+        if (compare(t, key) < 0) {
+            t.right = split(t.right, key);
+            update(t);
+            return t;
+        }
+        Node left = split(t.left, key);
+        t.left = splitRight;
+        update(t);
+        splitRight = t;
+        return left;
+    }
+
+    /** Joins two treaps with no node in common, in any order. */
+    private Node union(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority < b.priority) {
+            Node t = a;
+            a = b;
+            b = t;
+        }
+        Node left = split(b, a);
+        Node right = splitRight;
+        splitRight = null;
+        a.left = union(a.left, left);
+        a.right = union(a.right, right);
+        update(a);
+        return a;
+    }
+
+    /** Joins two treaps where every node of {@code a} is ordered before every node of {@code b}. */
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node erase(Node t, Node node) {
+        if (t == node) {
+            return merge(t.left, t.right);
+        }
+        if (compare(node, t) < 0) {
+            t.left = erase(t.left, node);
+        } else {
+            t.right = erase(t.right, node);
+        }
+        update(t);
+        return t;
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    /** Puts runs of equal keys in a sorted {@code order} in id order, as {@link #compare} does. */
+    private static void breakTiesById(int[] order, long[] keys, Task[] source) {
+        for (int k = 1; k < order.length; k++) {
+            int current = order[k];
+            int j = k - 1;
+            while (j >= 0 && sameKeys(keys, order[j], current)
+                    && source[order[j]].getId() > source[current].getId()) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
+    }
+
+    private static boolean sameKeys(long[] keys, int a, int b) {
+        return keys[3 * a] == keys[3 * b] && keys[3 * a + 1] == keys[3 * b + 1] && keys[3 * a + 2] == keys[3 * b + 2];
+    }
+
+    /** Ranking order: higher rank first, then earlier due date, older creation, lower id. */
+    private static int compare(Node a, Node b) {
+        if (a.rank != b.rank) return Integer.compare(b.rank, a.rank);
+        if (a.dueDate != b.dueDate) return Long.compare(a.dueDate, b.dueDate);
+        if (a.createdAt != b.createdAt) return Long.compare(a.createdAt, b.createdAt);
+        return Integer.compare(a.id, b.id);
+    }
+}
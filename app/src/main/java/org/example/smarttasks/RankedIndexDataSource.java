@@ -0,0 +1,69 @@
+package org.example.smarttasks;
+
+import androidx.annotation.NonNull;
+import androidx.paging.DataSource;
+import androidx.paging.PositionalDataSource;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Pages a {@link RankedIndex} by position. Pages are read under the index lock, and each change
+ * invalidates the current data source under the same lock, so a page either predates a change
+ * (and is dropped with its invalid data source) or includes all of it.
+ */
+public class RankedIndexDataSource extends PositionalDataSource<Task> {
+    private final RankedIndex index;
+
+    RankedIndexDataSource(RankedIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public void loadInitial(@NonNull LoadInitialParams params, @NonNull LoadInitialCallback<Task> callback) {
+        List<Task> page;
+        int position;
+        int total;
+        synchronized (index) {
+            total = index.size();
+            position = computeInitialLoadPosition(params, total);
+            page = index.range(position, computeInitialLoadSize(params, position, total));
+        }
+        callback.onResult(page, position, total);
+    }
+
+    @Override
+    public void loadRange(@NonNull LoadRangeParams params, @NonNull LoadRangeCallback<Task> callback) {
+        callback.onResult(index.range(params.startPosition, params.loadSize));
+    }
+
+    public static class Factory extends DataSource.Factory<Integer, Task> {
+        private final RankedIndex index;
+        private volatile RankedIndexDataSource current;
+
+        public Factory(RankedIndex index) {
+            this.index = index;
+        }
+
+        @NonNull
+        @Override
+        public DataSource<Integer, Task> create() {
+            current = new RankedIndexDataSource(index);
+            return current;
+        }
+
+        RankedIndex getIndex() {
+            return index;
+        }
+
+        /**
+         * Applies {@code change} to the index and, if it reports a change, invalidates the paged
+         * list in the same step.
+         */
+        public void update(Predicate<RankedIndex> change) {
+            synchronized (index) {
+                RankedIndexDataSource source = current;
+                if (change.test(index) && source != null) source.invalidate();
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.example.smarttasks;
+
+import androidx.annotation.NonNull;
+import androidx.paging.DataSource;
+import androidx.paging.ItemKeyedDataSource;
+import androidx.room.InvalidationTracker;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.example.smarttasks.metrics.Histogram;
+import org.example.smarttasks.metrics.Metrics;
+
+/**
+ * Pages tasks in final ranking order (persisted score + due points, then dueDate,
+ * createdAt, id) using keyset pagination instead of OFFSET.
+ *
+ * Within one due bucket the ranking is exactly the order of the
+ * (score DESC, dueDate, createdAt) index, so a page is a merge of at most four
+ * index-ordered range queries, one per bucket, each seeking past the last key.
+ * The clock is captured once per data source; Room invalidation creates a new one.
+ * Rows outside the {@link TaskQuery} are filtered in SQL and never loaded.
+ *
+ * The repository pages from here while a query's {@link RankedIndex} is still loading, and for
+ * good once a query matches more rows than it keeps in memory: only the loaded pages are held,
+ * at the price of re-running the page queries after every change.
+ */
+public class RankedTaskDataSource extends ItemKeyedDataSource<RankedTaskDataSource.Key, Task> {
+    private static final int DUE_WEIGHT = RankedIndex.DUE_WEIGHT;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    // Due bucket b covers dueDate in [now + FROM_DAYS[b], now + TO_DAYS[b]) and earns b points
+    private static final long[] FROM_DAYS = {31, 8, 4, Long.MIN_VALUE};
+    private static final long[] TO_DAYS = {Long.MAX_VALUE, 31, 8, 4};
+
+    private static final String ORDER_FORWARD = " ORDER BY score DESC, dueDate ASC, createdAt ASC, id ASC";
+    private static final String ORDER_BACKWARD = " ORDER BY score ASC, dueDate DESC, createdAt DESC, id DESC";
+
+    private static final Histogram PAGE_TIME = Metrics.get().timer("db.page.time");
+
+    /** Position of a task in the ranking; {@code rank} already includes the due points. */
+    public static class Key {
+        final int rank;
+        final long dueDate;
+        final long createdAt;
+        final int id;
+
+        Key(int rank, long dueDate, long createdAt, int id) {
+            this.rank = rank;
+            this.dueDate = dueDate;
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+
+    private final TaskDatabase database;
+    private final TaskDao taskDao;
+    private final TaskQuery query;
+    private final long now;
+    private final InvalidationTracker.Observer observer;
+
+    RankedTaskDataSource(TaskDatabase database, TaskQuery query, long now) {
+        this.database = database;
+        this.taskDao = database.taskDao();
+        this.query = query;
+        this.now = now;
+        this.observer = new InvalidationTracker.Observer("tasks") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        database.getInvalidationTracker().addObserver(observer);
+        addInvalidatedCallback(() -> database.getInvalidationTracker().removeObserver(observer));
+    }
+
+    @Override
+    public void loadInitial(@NonNull LoadInitialParams<Key> params, @NonNull LoadInitialCallback<Task> callback) {
+        Key key = params.requestedInitialKey;
+        if (!params.placeholdersEnabled) {
+            callback.onResult(seek(key, params.requestedLoadSize, true, true));
+            return;
+        }
+        // One read transaction so position and total agree with the page
+        database.runInTransaction(() -> {
+            List<Task> items = seek(key, params.requestedLoadSize, true, true);
+            int position = key == null ? 0 : countBefore(key);
+            int total = taskDao.count(query.toCountSelect());
+            callback.onResult(items, position, total);
+        });
+    }
+
+    @Override
+    public void loadAfter(@NonNull LoadParams<Key> params, @NonNull LoadCallback<Task> callback) {
+        callback.onResult(seek(params.key, params.requestedLoadSize, true, false));
+    }
+
+    @Override
+    public void loadBefore(@NonNull LoadParams<Key> params, @NonNull LoadCallback<Task> callback) {
+        callback.onResult(seek(params.key, params.requestedLoadSize, false, false));
+    }
+
+    @NonNull
+    @Override
+    public Key getKey(@NonNull Task item) {
+        return keyOf(item, TaskOrganizerAI.computeDuePoints(item, now));
+    }
+
+    private static Key keyOf(Task task, int duePoints) {
+        return new Key(task.getScore() + DUE_WEIGHT * duePoints, task.getDueDate(), task.getCreatedAt(), task.getId());
+    }
+
+    /**
+     * Up to {@code limit} tasks after (forward) or before (backward) {@code key}, in list order.
+     * A null key starts from the top.
+     */
+    private List<Task> seek(Key key, int limit, boolean forward, boolean inclusive) {
+        long start = System.nanoTime();
+        List<List<Task>> runs = new ArrayList<>(4);
+        for (int bucket = 0; bucket < 4; bucket++) {
+            List<Object> args = new ArrayList<>();
+            StringBuilder sql = new StringBuilder("SELECT * FROM tasks WHERE ");
+            query.appendWhere(sql, args);
+            appendBucketRange(sql, args, bucket);
+            if (key != null) {
+                appendSeek(sql, args, key, bucket, forward, inclusive);
+            }
+            sql.append(forward ? ORDER_FORWARD : ORDER_BACKWARD).append(" LIMIT ?");
+            args.add(limit);
+            runs.add(taskDao.getTasks(new SimpleSQLiteQuery(sql.toString(), args.toArray())));
+        }
+        List<Task> page = merge(runs, limit, forward);
+        if (!forward) {
+            Collections.reverse(page);
+        }
+        PAGE_TIME.recordSince(start);
+        return page;
+    }
+
+    private int countBefore(Key key) {
+        int count = 0;
+        for (int bucket = 0; bucket < 4; bucket++) {
+            List<Object> args = new ArrayList<>();
+            StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM tasks WHERE ");
+            query.appendWhere(sql, args);
+            appendBucketRange(sql, args, bucket);
+            appendSeek(sql, args, key, bucket, false, false);
+            count += taskDao.count(new SimpleSQLiteQuery(sql.toString(), args.toArray()));
+        }
+        return count;
+    }
+
+    private void appendBucketRange(StringBuilder sql, List<Object> args, int bucket) {
+        if (FROM_DAYS[bucket] != Long.MIN_VALUE) {
+            sql.append(" AND dueDate >= ?");
+            args.add(now + FROM_DAYS[bucket] * DAY_MS);
+        }
+        if (TO_DAYS[bucket] != Long.MAX_VALUE) {
+            sql.append(" AND dueDate < ?");
+            args.add(now + TO_DAYS[bucket] * DAY_MS);
+        }
+    }
+
+    /**
+     * Rows strictly after (or before) the key within one bucket. In a bucket the rank is
+     * score + DUE_WEIGHT * bucket, so the key maps to a plain score bound the index can seek to.
+     */
+    private static void appendSeek(StringBuilder sql, List<Object> args, Key key, int bucket,
+                                   boolean forward, boolean inclusive) {
+        int score = key.rank - DUE_WEIGHT * bucket;
+        String scoreOp = forward ? "<" : ">";
+        String op = forward ? ">" : "<";
+        sql.append(" AND score ").append(scoreOp).append("= ?")
+                .append(" AND (score ").append(scoreOp).append(" ?")
+                .append(" OR (score = ? AND (dueDate ").append(op).append(" ?")
+                .append(" OR (dueDate = ? AND (createdAt ").append(op).append(" ?")
+                .append(" OR (createdAt = ? AND id ").append(op).append(inclusive ? "= ?" : " ?")
+                .append("))))))");
+        Collections.addAll(args, score, score, score, key.dueDate, key.dueDate, key.createdAt, key.createdAt, key.id);
+    }
+
+    /** Merges the per-bucket runs, each already in list (or reverse list) order. */
+    private List<Task> merge(List<List<Task>> runs, int limit, boolean forward) {
+        Key[] heads = new Key[runs.size()];
+        int[] pos = new int[runs.size()];
+        List<Task> page = new ArrayList<>(limit);
+        while (page.size() < limit) {
+            int best = -1;
+            for (int bucket = 0; bucket < runs.size(); bucket++) {
+                if (pos[bucket] >= runs.get(bucket).size()) continue;
+                if (heads[bucket] == null) heads[bucket] = keyOf(runs.get(bucket).get(pos[bucket]), bucket);
+                if (best < 0 || (compare(heads[bucket], heads[best]) < 0) == forward) {
+                    best = bucket;
+                }
+            }
+            if (best < 0) break;
+            page.add(runs.get(best).get(pos[best]++));
+            heads[best] = null;
+        }
+        return page;
+    }
+
+    /** Ranking order: higher rank first, then earlier due date, older creation, lower id. */
+    private static int compare(Key a, Key b) {
+        if (a.rank != b.rank) return Integer.compare(b.rank, a.rank);
+        if (a.dueDate != b.dueDate) return Long.compare(a.dueDate, b.dueDate);
+        if (a.createdAt != b.createdAt) return Long.compare(a.createdAt, b.createdAt);
+        return Integer.compare(a.id, b.id);
+    }
+
+    public static class Factory extends DataSource.Factory<Key, Task> {
+        private final TaskDatabase database;
+        private final TaskQuery query;
+
+        public Factory(TaskDatabase database, TaskQuery query) {
+            this.database = database;
+            this.query = query;
+        }
+
+        @NonNull
+        @Override
+        public DataSource<Key, Task> create() {
+            return new RankedTaskDataSource(database, query, System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.smarttasks;
+
+import android.app.Application;
+import android.util.Log;
+import org.example.smarttasks.metrics.Tracer;
+
+public class SmartTasksApplication extends Application {
+    // Fraction of DEBUG traces logged; the organizer traces every sort
+    private static final double DEBUG_TRACE_SAMPLE_RATE = 0.1;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Release builds keep tracing off; metrics are always recorded
+        if (BuildConfig.DEBUG) {
+            Tracer.configure(Tracer.Level.DEBUG, DEBUG_TRACE_SAMPLE_RATE, Log::d);
+        }
+    }
+}
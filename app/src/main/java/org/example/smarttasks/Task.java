@@ -1,9 +1,16 @@
 package org.example.smarttasks;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "tasks")
+@Entity(tableName = "tasks",
+        indices = {@Index(value = {"score", "dueDate", "createdAt"},
+                        orders = {Index.Order.DESC, Index.Order.ASC, Index.Order.ASC}),
+                @Index(value = {"status", "score", "dueDate", "createdAt"},
+                        orders = {Index.Order.ASC, Index.Order.DESC, Index.Order.ASC, Index.Order.ASC})})
 public class Task {
     @PrimaryKey(autoGenerate = true)
     private int id;
@@ -14,6 +21,21 @@ public class Task {
     private long dueDate; // timestamp
     private Status status;
     private long createdAt;
+    // Last local or server modification; drives sync conflict resolution
+    @ColumnInfo(defaultValue = "0")
+    private long updatedAt;
+    // Time-independent part of the AI score (importance, priority, cloud); due points are added at read time
+    @ColumnInfo(defaultValue = "0")
+    private int score;
+    // Hugging Face HIGH-label probabilities (null until the task has been scored)
+    private Double cloudImportance;
+    private Double cloudUrgency;
+    private Long scoredAt;
+    // Due state cached by RankedIndex and refreshed when a due boundary passes; -1 until ranked
+    @Ignore
+    private int duePoints = -1;
+    @Ignore
+    private boolean urgent;
 
     public Task(String title, String description, Priority priority, Importance importance, long dueDate) {
         this.title = title;
@@ -23,6 +45,27 @@ public class Task {
         this.dueDate = dueDate;
         this.status = Status.PENDING;
         this.createdAt = System.currentTimeMillis();
+        this.updatedAt = this.createdAt;
+    }
+
+    /** Copy, so a changed task can be handed out without mutating an item the UI is still showing. */
+    @Ignore
+    public Task(Task other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.priority = other.priority;
+        this.importance = other.importance;
+        this.dueDate = other.dueDate;
+        this.status = other.status;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.score = other.score;
+        this.cloudImportance = other.cloudImportance;
+        this.cloudUrgency = other.cloudUrgency;
+        this.scoredAt = other.scoredAt;
+        this.duePoints = other.duePoints;
+        this.urgent = other.urgent;
     }
 
     // Getters and Setters
@@ -50,6 +93,32 @@ public class Task {
     public long getCreatedAt() { return createdAt; }
     public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
 
+    public long getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+
+    public Double getCloudImportance() { return cloudImportance; }
+    public void setCloudImportance(Double cloudImportance) { this.cloudImportance = cloudImportance; }
+
+    public Double getCloudUrgency() { return cloudUrgency; }
+    public void setCloudUrgency(Double cloudUrgency) { this.cloudUrgency = cloudUrgency; }
+
+    public Long getScoredAt() { return scoredAt; }
+    public void setScoredAt(Long scoredAt) { this.scoredAt = scoredAt; }
+
+    /** Due points as of the last ranking, or -1 if the task has not been ranked. */
+    public int getDuePoints() { return duePoints; }
+
+    /** Urgency as of the last ranking; only meaningful when {@link #getDuePoints()} is set. */
+    public boolean isUrgent() { return urgent; }
+
+    void setDueState(int duePoints, boolean urgent) {
+        this.duePoints = duePoints;
+        this.urgent = urgent;
+    }
+
     public enum Priority {
         HIGH, MEDIUM, LOW
     }
@@ -8,16 +8,48 @@ import android.widget.CheckBox;
 import android.widget.ImageButton;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.paging.PagedListAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder> {
-    private List<Task> tasks;
+/**
+ * Shows a ranked PagedList; rows not loaded yet are placeholders (null items). Every new
+ * list is diffed on a background thread, so a toggle or a re-ranked task only produces
+ * change/move notifications for the rows involved.
+ */
+public class TaskAdapter extends PagedListAdapter<Task, TaskAdapter.TaskViewHolder> {
     private OnTaskClickListener listener;
 
+    static final DiffUtil.ItemCallback<Task> DIFF_CALLBACK = new DiffUtil.ItemCallback<Task>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        // Only the fields bind() displays
+        @Override
+        public boolean areContentsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && oldItem.getPriority() == newItem.getPriority()
+                    && oldItem.getDueDate() == newItem.getDueDate()
+                    && oldItem.getStatus() == newItem.getStatus()
+                    && isShownUrgent(oldItem) == isShownUrgent(newItem);
+        }
+    };
+
+    /**
+     * The urgency badge bind() shows: as of the last ranking when the task came from the index,
+     * otherwise worked out now, so a row from SQL that crosses the boundary is rebound.
+     */
+    static boolean isShownUrgent(Task task) {
+        return task.getDuePoints() >= 0 ? task.isUrgent() : TaskOrganizerAI.isTaskUrgent(task);
+    }
+
     public interface OnTaskClickListener {
         void onTaskClick(Task task);
         void onTaskComplete(Task task);
@@ -25,6 +57,7 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
     }
 
     public TaskAdapter(OnTaskClickListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
     }
 
@@ -38,20 +71,10 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        Task currentTask = tasks.get(position);
+        Task currentTask = getItem(position);
         holder.bind(currentTask);
     }
 
-    @Override
-    public int getItemCount() {
-        return tasks != null ? tasks.size() : 0;
-    }
-
-    public void setTasks(List<Task> tasks) {
-        this.tasks = tasks;
-        notifyDataSetChanged();
-    }
-
     class TaskViewHolder extends RecyclerView.ViewHolder {
         private TextView taskTitle;
         private TextView taskDescription;
@@ -72,8 +95,8 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             // Edit task on click
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
-                if (listener != null && position != RecyclerView.NO_POSITION) {
-                    listener.onTaskClick(tasks.get(position));
+                if (listener != null && position != RecyclerView.NO_POSITION && getItem(position) != null) {
+                    listener.onTaskClick(getItem(position));
                 }
             });
 
@@ -81,22 +104,32 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             taskCheckbox.setOnCheckedChangeListener((buttonView, isChecked) -> {
                 int position = getAdapterPosition();
                 if (listener != null && position != RecyclerView.NO_POSITION) {
-                    Task task = tasks.get(position);
-                    task.setStatus(isChecked ? Task.Status.COMPLETED : Task.Status.PENDING);
-                    listener.onTaskComplete(task);
+                    Task task = getItem(position);
+                    Task.Status status = isChecked ? Task.Status.COMPLETED : Task.Status.PENDING;
+                    if (task == null || task.getStatus() == status) {
+                        return; // bind() restoring the state of a recycled row
+                    }
+                    // Leave the displayed item untouched so the next diff sees the change
+                    Task updated = new Task(task);
+                    updated.setStatus(status);
+                    listener.onTaskComplete(updated);
                 }
             });
 
             // Delete task on delete button click
             deleteButton.setOnClickListener(v -> {
                 int position = getAdapterPosition();
-                if (listener != null && position != RecyclerView.NO_POSITION) {
-                    listener.onTaskDelete(tasks.get(position));
+                if (listener != null && position != RecyclerView.NO_POSITION && getItem(position) != null) {
+                    listener.onTaskDelete(getItem(position));
                 }
             });
         }
 
         public void bind(Task task) {
+            if (task == null) {
+                bindPlaceholder();
+                return;
+            }
             taskTitle.setText(task.getTitle());
             taskDescription.setText(task.getDescription());
             taskPriority.setText(task.getPriority().name());
@@ -121,7 +154,7 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             String dueDateText = "Due: " + sdf.format(new Date(task.getDueDate()));
             
             // AI-powered urgency indicator
-            if (TaskOrganizerAI.isTaskUrgent(task)) {
+            if (isShownUrgent(task)) {
                 dueDateText += " ⚠️ URGENT";
                 taskDueDate.setTextColor(taskDueDate.getContext().getResources().getColor(android.R.color.holo_red_dark));
             } else {
@@ -130,5 +163,13 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
             
             taskDueDate.setText(dueDateText);
         }
+
+        private void bindPlaceholder() {
+            taskTitle.setText(null);
+            taskDescription.setText(null);
+            taskPriority.setText(null);
+            taskDueDate.setText(null);
+            taskCheckbox.setChecked(false);
+        }
     }
 }
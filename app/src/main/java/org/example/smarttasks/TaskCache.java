@@ -0,0 +1,137 @@
+package org.example.smarttasks;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.room.InvalidationTracker;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.example.smarttasks.metrics.Counter;
+import org.example.smarttasks.metrics.Gauge;
+import org.example.smarttasks.metrics.Metrics;
+
+/**
+ * Read-through identity map of tasks by id, least recently used first out. While a task stays
+ * cached every lookup returns the same instance, so callers must copy it ({@link Task#Task(Task)})
+ * before changing it. Writers call {@link #invalidate()} as soon as their transaction commits;
+ * Room's invalidation tracker, which reports writes per table and only later, covers any other
+ * path. Either way a write to {@code tasks} drops every entry, and a row read before it is never
+ * cached after it.
+ */
+public class TaskCache {
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private static TaskCache instance;
+
+    private final TaskDao dao;
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+    private final LinkedHashMap<Integer, Task> tasks;
+    // Bumped on every invalidation; guarded by this
+    private long generation;
+
+    private final Counter hits = Metrics.get().counter("task.cache.hits");
+    private final Counter misses = Metrics.get().counter("task.cache.misses");
+    private final Counter invalidations = Metrics.get().counter("task.cache.invalidations");
+    private final Gauge size = Metrics.get().gauge("task.cache.size");
+
+    // Held strongly by the tracker for the life of the process, like the cache itself
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("tasks") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            invalidate();
+        }
+    };
+
+    public TaskCache(TaskDao dao, int capacity) {
+        this.dao = dao;
+        this.tasks = new LinkedHashMap<Integer, Task>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Task> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static synchronized TaskCache getInstance(Context context) {
+        if (instance == null) {
+            TaskDatabase database = TaskDatabase.getInstance(context);
+            instance = new TaskCache(database.taskDao(), DEFAULT_CAPACITY);
+            database.getInvalidationTracker().addObserver(instance.observer);
+        }
+        return instance;
+    }
+
+    /** The cached task, or null; never reads the database. */
+    public synchronized Task getIfPresent(int id) {
+        return tasks.get(id);
+    }
+
+    /**
+     * The task with this id, from the cache or else read once on a background thread. The value is
+     * null if there is no such task.
+     */
+    public LiveData<Task> load(int id) {
+        Task cached;
+        long readGeneration;
+        synchronized (this) {
+            cached = tasks.get(id);
+            readGeneration = generation;
+        }
+        if (cached != null) {
+            hits.inc();
+            return new MutableLiveData<>(cached);
+        }
+        misses.inc();
+        MutableLiveData<Task> result = new MutableLiveData<>();
+        ioExecutor.execute(() -> result.postValue(put(dao.getTask(id), readGeneration)));
+        return result;
+    }
+
+    /**
+     * Calling thread: the task with this id from the cache or the database, or null if there is
+     * none. For callers already off the main thread.
+     */
+    public Task get(int id) {
+        Task cached;
+        long readGeneration;
+        synchronized (this) {
+            cached = tasks.get(id);
+            readGeneration = generation;
+        }
+        if (cached != null) {
+            hits.inc();
+            return cached;
+        }
+        misses.inc();
+        return put(dao.getTask(id), readGeneration);
+    }
+
+    /**
+     * Caches a task read while the cache was at {@code readGeneration}, unless a write has
+     * invalidated it since. Returns the instance callers should use: the cached one if another
+     * reader got there first.
+     */
+    private synchronized Task put(Task task, long readGeneration) {
+        if (task == null || readGeneration != generation) return task;
+        Task existing = tasks.get(task.getId());
+        if (existing != null) return existing;
+        tasks.put(task.getId(), task);
+        size.set(tasks.size());
+        return task;
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        tasks.clear();
+        invalidations.inc();
+        size.set(0);
+    }
+
+    public synchronized int size() {
+        return tasks.size();
+    }
+}
@@ -5,14 +5,24 @@ import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
+import androidx.room.RawQuery;
 import androidx.room.Update;
+import androidx.room.Upsert;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import java.util.List;
 
 @Dao
 public interface TaskDao {
     @Insert
-    void insert(Task task);
+    long insert(Task task);
+
+    // Bulk variants reuse one prepared statement; wrap them in a transaction per chunk
+    @Insert
+    List<Long> insertAll(List<Task> tasks);
+
+    @Upsert
+    List<Long> upsertAll(List<Task> tasks);
 
     @Update
     void update(Task task);
@@ -20,11 +30,43 @@ public interface TaskDao {
     @Delete
     void delete(Task task);
 
-    @Query("SELECT * FROM tasks")
-    LiveData<List<Task>> getAllTasks();
-
     @Query("SELECT * FROM tasks WHERE id = :id")
-    LiveData<Task> getTaskById(int id);
+    Task getTask(int id);
+
+    // Callers keep ids under SQLite's bind-variable limit
+    @Query("SELECT * FROM tasks WHERE id IN (:ids)")
+    List<Task> getTasksByIds(List<Integer> ids);
+
+    @Query("UPDATE tasks SET cloudImportance = :importance, cloudUrgency = :urgency, scoredAt = :scoredAt, "
+            + "score = " + TaskDatabase.STATIC_SCORE_SQL + " + :cloudBonus WHERE id = :id")
+    void updateCloudScores(int id, double importance, double urgency, long scoredAt, int cloudBonus);
+
+    // Filtered list built by TaskQuery.toRankedSelect()
+    @RawQuery(observedEntities = Task.class)
+    LiveData<List<Task>> observeTasks(SupportSQLiteQuery query);
+
+    // Rows for a TaskQuery, loaded once into the repository's RankedIndex, and the keyset
+    // page queries built by RankedTaskDataSource
+    @RawQuery
+    List<Task> getTasks(SupportSQLiteQuery query);
+
+    @RawQuery
+    int count(SupportSQLiteQuery query);
+
+    // Every hit of a TaskSearch MATCH expression; answered from the FTS index, no task rows are read
+    @Query("SELECT rowid AS id, matchinfo(tasks_fts, 'pcx') AS matchInfo FROM tasks_fts WHERE tasks_fts MATCH :match")
+    List<TaskSearch.Match> matchTasks(String match);
+
+    // Rows and snippets for the hits TaskSearch picked; ids are at most TaskSearch.MAX_RESULTS
+    @Query("SELECT tasks.*, snippet(tasks_fts, '" + TaskSearch.HIGHLIGHT_START + "', '" + TaskSearch.HIGHLIGHT_END
+            + "', '" + TaskSearch.ELLIPSIS + "', -1, " + TaskSearch.SNIPPET_TOKENS + ") AS snippet "
+            + "FROM tasks_fts JOIN tasks ON tasks.id = tasks_fts.rowid "
+            + "WHERE tasks_fts MATCH :match AND tasks_fts.rowid IN (:ids)")
+    List<TaskSearch.Result> getSearchResults(String match, List<Integer> ids);
+
+    // Callers keep ids under SQLite's bind-variable limit
+    @Query("DELETE FROM tasks WHERE id IN (:ids)")
+    void deleteByIds(List<Integer> ids);
 
     @Query("DELETE FROM tasks")
     void deleteAllTasks();
@@ -1,22 +1,169 @@
 package org.example.smarttasks;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import java.util.ArrayList;
+import java.util.List;
 
-@Database(entities = {Task.class}, version = 1, exportSchema = false)
+@Database(entities = {Task.class, TaskFts.class, CachedScore.class, PendingOp.class}, version = 8, exportSchema = false)
 @TypeConverters({Converters.class})
 public abstract class TaskDatabase extends RoomDatabase {
     private static TaskDatabase instance;
 
     public abstract TaskDao taskDao();
 
+    public abstract CachedScoreDao cachedScoreDao();
+
+    public abstract PendingOpDao pendingOpDao();
+
+    // Importance/priority part of TaskOrganizerAI.getStaticScore with the default weights
+    static final String STATIC_SCORE_SQL =
+            "3 * (CASE `importance` WHEN 'HIGH' THEN 3 WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 1 ELSE 0 END) + "
+            + "2 * (CASE `priority` WHEN 'HIGH' THEN 3 WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 1 ELSE 0 END)";
+
+    /** Adds the persisted score column (default weights) and the ranking index. */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `score` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `tasks` SET `score` = " + STATIC_SCORE_SQL);
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_score_dueDate_createdAt` "
+                    + "ON `tasks` (`score` DESC, `dueDate` ASC, `createdAt` ASC)");
+        }
+    };
+
+    /**
+     * Adds the cloud probability columns and moves legacy "[IMP:x][URG:y] " description
+     * tags into them, so descriptions are plain text again.
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `cloudImportance` REAL");
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `cloudUrgency` REAL");
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `scoredAt` INTEGER");
+
+            List<Integer> ids = new ArrayList<>();
+            List<String> descriptions = new ArrayList<>();
+            try (Cursor cursor = db.query("SELECT `id`, `description` FROM `tasks` WHERE `description` LIKE '[IMP:%'")) {
+                while (cursor.moveToNext()) {
+                    ids.add(cursor.getInt(0));
+                    descriptions.add(cursor.getString(1));
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < ids.size(); i++) {
+                String desc = descriptions.get(i);
+                Double imp = null;
+                Double urg = null;
+                // Older builds could stack tags; the first pair is the latest score
+                while (desc.startsWith("[IMP:")) {
+                    int impEnd = desc.indexOf("]");
+                    int urgStart = desc.indexOf("[URG:", impEnd);
+                    int urgEnd = urgStart < 0 ? -1 : desc.indexOf("]", urgStart);
+                    if (urgStart != impEnd + 1 || urgEnd < 0) break;
+                    try {
+                        double parsedImp = Double.parseDouble(desc.substring(5, impEnd));
+                        double parsedUrg = Double.parseDouble(desc.substring(urgStart + 5, urgEnd));
+                        if (imp == null) {
+                            imp = parsedImp;
+                            urg = parsedUrg;
+                        }
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                    desc = desc.substring(urgEnd + 1).trim();
+                }
+                if (imp == null) continue; // malformed tag: leave the row as it is
+
+                ContentValues values = new ContentValues();
+                values.put("description", desc);
+                values.put("cloudImportance", imp);
+                values.put("cloudUrgency", urg);
+                values.put("scoredAt", now);
+                db.update("tasks", SQLiteDatabase.CONFLICT_NONE, values, "id = ?", new Object[]{ids.get(i)});
+                db.execSQL("UPDATE `tasks` SET `score` = " + STATIC_SCORE_SQL + " + ? WHERE `id` = ?",
+                        new Object[]{TaskOrganizerAI.cloudBonus(imp, urg), ids.get(i)});
+            }
+        }
+    };
+
+    /** Adds the persistent tier of the Hugging Face score cache. */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `hf_score_cache` (`key` TEXT NOT NULL, "
+                    + "`importance` REAL, `urgency` REAL, `storedAt` INTEGER NOT NULL, PRIMARY KEY(`key`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_hf_score_cache_storedAt` ON `hf_score_cache` (`storedAt`)");
+        }
+    };
+
+    /** Status-leading ranking index, so filtered views seek straight to their rows. */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_status_score_dueDate_createdAt` "
+                    + "ON `tasks` (`status` ASC, `score` DESC, `dueDate` ASC, `createdAt` ASC)");
+        }
+    };
+
+    /** Adds the sync outbox. */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sync_outbox` (`taskId` INTEGER NOT NULL, `op` TEXT NOT NULL, "
+                    + "`idempotencyKey` TEXT NOT NULL, `enqueuedAt` INTEGER NOT NULL, PRIMARY KEY(`taskId`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_sync_outbox_enqueuedAt` ON `sync_outbox` (`enqueuedAt`)");
+        }
+    };
+
+    /** Adds the modification timestamp used by delta sync; existing rows start at createdAt. */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `tasks` ADD COLUMN `updatedAt` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `tasks` SET `updatedAt` = `createdAt`");
+        }
+    };
+
+    /**
+     * Adds the full-text index over titles and descriptions, with the same table and sync
+     * triggers Room creates on a fresh install, and indexes the existing rows.
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `tasks_fts` USING FTS4(`title` TEXT, `description` TEXT, "
+                    + "tokenize=unicode61, content=`tasks`, prefix=`2,3`)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_UPDATE BEFORE UPDATE ON `tasks` "
+                    + "BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_DELETE BEFORE DELETE ON `tasks` "
+                    + "BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_UPDATE AFTER UPDATE ON `tasks` "
+                    + "BEGIN INSERT INTO `tasks_fts`(`docid`, `title`, `description`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_INSERT AFTER INSERT ON `tasks` "
+                    + "BEGIN INSERT INTO `tasks_fts`(`docid`, `title`, `description`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+            db.execSQL("INSERT INTO `tasks_fts`(`tasks_fts`) VALUES('rebuild')");
+        }
+    };
+
     public static synchronized TaskDatabase getInstance(Context context) {
         if (instance == null) {
             instance = Room.databaseBuilder(context.getApplicationContext(),
                     TaskDatabase.class, "task_database")
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8)
                     .fallbackToDestructiveMigration()
                     .build();
         }
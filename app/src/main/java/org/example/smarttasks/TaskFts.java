@@ -0,0 +1,28 @@
+package org.example.smarttasks;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over task titles and descriptions. It stores no text of its own
+ * (external content on {@code tasks}); Room keeps it in step with triggers on the tasks table.
+ * Prefix indexes for 2 and 3 characters keep search-as-you-type lookups on the index.
+ */
+@Fts4(contentEntity = Task.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61, prefix = {2, 3})
+@Entity(tableName = "tasks_fts")
+public class TaskFts {
+    private String title;
+    private String description;
+
+    public TaskFts(String title, String description) {
+        this.title = title;
+        this.description = description;
+    }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
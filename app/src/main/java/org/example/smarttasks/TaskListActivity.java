@@ -2,30 +2,37 @@ package org.example.smarttasks;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import org.example.smarttasks.api.HfClient;
+import org.example.smarttasks.metrics.Metrics;
 import org.example.smarttasks.sync.SyncManager;
-
-import java.util.List;
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 
 public class TaskListActivity extends AppCompatActivity implements TaskAdapter.OnTaskClickListener {
-    
+    // Typing pauses this long before the search runs
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+
     private RecyclerView recyclerView;
     private FloatingActionButton fab;
     private TaskViewModel taskViewModel;
     private TaskAdapter adapter;
-    private Task.Status currentFilter = Task.Status.PENDING; // Default filter
+    private TaskSearchAdapter searchAdapter;
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private String pendingSearch = "";
+    private final Runnable searchTask = this::applySearch;
     private SyncManager syncManager;
-    private HfClient hfClient;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -40,7 +47,6 @@ public class TaskListActivity extends AppCompatActivity implements TaskAdapter.O
         setupClickListeners();
         setupViewModel();
         setupSyncManager();
-        hfClient = new HfClient();
     }
 
     private void initializeViews() {
@@ -50,6 +56,7 @@ public class TaskListActivity extends AppCompatActivity implements TaskAdapter.O
 
     private void setupRecyclerView() {
         adapter = new TaskAdapter(this);
+        searchAdapter = new TaskSearchAdapter(this);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setAdapter(adapter);
     }
@@ -66,33 +73,16 @@ public class TaskListActivity extends AppCompatActivity implements TaskAdapter.O
 
     private void setupViewModel() {
         taskViewModel = new ViewModelProvider(this).get(TaskViewModel.class);
-        taskViewModel.getAllTasks().observe(this, tasks -> {
-            // Apply AI organization to tasks
-            TaskOrganizerAI.organizeTasks(tasks);
-            // Apply current filter
-            List<Task> filteredTasks = filterTasks(tasks);
-            adapter.setTasks(filteredTasks);
-        });
-    }
-
-    private List<Task> filterTasks(List<Task> tasks) {
-        if (currentFilter == null) {
-            return tasks; // Show all tasks
-        }
-        return tasks.stream()
-                .filter(task -> task.getStatus() == currentFilter)
-                .collect(java.util.stream.Collectors.toList());
+        // Rows arrive ranked and filtered page by page; nothing is sorted here
+        taskViewModel.getPagedTasks().observe(this, adapter::submitList);
+        taskViewModel.getSearchResults().observe(this, searchAdapter::submitList);
     }
 
     @Override
     public void onTaskClick(Task task) {
+        // The editor loads the task by id from the repository's cache
         Intent intent = new Intent(TaskListActivity.this, AddEditTaskActivity.class);
         intent.putExtra(AddEditTaskActivity.EXTRA_ID, task.getId());
-        intent.putExtra(AddEditTaskActivity.EXTRA_TITLE, task.getTitle());
-        intent.putExtra(AddEditTaskActivity.EXTRA_DESCRIPTION, task.getDescription());
-        intent.putExtra(AddEditTaskActivity.EXTRA_PRIORITY, task.getPriority().name());
-        intent.putExtra(AddEditTaskActivity.EXTRA_IMPORTANCE, task.getImportance().name());
-        intent.putExtra(AddEditTaskActivity.EXTRA_DUE_DATE, task.getDueDate());
         startActivityForResult(intent, 2);
     }
 
@@ -107,14 +97,24 @@ public class TaskListActivity extends AppCompatActivity implements TaskAdapter.O
             Task.Importance importance = Task.Importance.valueOf(data.getStringExtra(AddEditTaskActivity.EXTRA_IMPORTANCE));
             long dueDate = data.getLongExtra(AddEditTaskActivity.EXTRA_DUE_DATE, System.currentTimeMillis());
 
-            Task task = new Task(title, description, priority, importance, dueDate);
-            
             int id = data.getIntExtra(AddEditTaskActivity.EXTRA_ID, -1);
             if (id != -1) {
-                task.setId(id);
-                taskViewModel.update(task);
+                // Only the edited fields change; status and createdAt are kept
+                taskViewModel.edit(id, task -> {
+                    if (!title.equals(task.getTitle()) || !description.equals(task.getDescription())) {
+                        // Cloud scores were for the old text; unscored tasks are requested again
+                        task.setCloudImportance(null);
+                        task.setCloudUrgency(null);
+                        task.setScoredAt(null);
+                    }
+                    task.setTitle(title);
+                    task.setDescription(description);
+                    task.setPriority(priority);
+                    task.setImportance(importance);
+                    task.setDueDate(dueDate);
+                });
             } else {
-                taskViewModel.insert(task);
+                taskViewModel.insert(new Task(title, description, priority, importance, dueDate));
             }
         }
     }
@@ -133,29 +133,98 @@ public class TaskListActivity extends AppCompatActivity implements TaskAdapter.O
     public boolean onCreateOptionsMenu(Menu menu) {
         MenuInflater menuInflater = getMenuInflater();
         menuInflater.inflate(R.menu.task_list_menu, menu);
+
+        MenuItem searchItem = menu.findItem(R.id.search_tasks);
+        SearchView searchView = (SearchView) searchItem.getActionView();
+        searchView.setQueryHint("Search tasks");
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                scheduleSearch(query, 0);
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                scheduleSearch(newText, SEARCH_DEBOUNCE_MS);
+                return true;
+            }
+        });
+        searchItem.setOnActionExpandListener(new MenuItem.OnActionExpandListener() {
+            @Override
+            public boolean onMenuItemActionExpand(MenuItem item) {
+                return true;
+            }
+
+            @Override
+            public boolean onMenuItemActionCollapse(MenuItem item) {
+                scheduleSearch("", 0);
+                return true;
+            }
+        });
         return true;
     }
 
+    private void scheduleSearch(String text, long delayMs) {
+        pendingSearch = text;
+        searchHandler.removeCallbacks(searchTask);
+        searchHandler.postDelayed(searchTask, delayMs);
+    }
+
+    private void applySearch() {
+        taskViewModel.setSearchText(pendingSearch);
+        RecyclerView.Adapter<?> shown = taskViewModel.isSearching() ? searchAdapter : adapter;
+        if (recyclerView.getAdapter() != shown) {
+            recyclerView.setAdapter(shown);
+        }
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Due boundaries passed while stopped are only picked up by the next wakeup otherwise
+        taskViewModel.refreshDueDates();
+    }
+
+    @Override
+    protected void onDestroy() {
+        searchHandler.removeCallbacks(searchTask);
+        super.onDestroy();
+    }
+
+    /** {@code adb shell dumpsys activity org.example.smarttasks/.TaskListActivity} includes the metrics. */
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.print(prefix);
+        writer.println("Metrics:");
+        for (String line : Metrics.get().dump().split("\n")) {
+            writer.print(prefix);
+            writer.print("  ");
+            writer.println(line);
+        }
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == R.id.filter_all) {
-            currentFilter = null;
+            taskViewModel.setStatusFilter(null);
             updateTitle("All Tasks");
-            refreshTasks();
             return true;
         } else if (item.getItemId() == R.id.filter_pending) {
-            currentFilter = Task.Status.PENDING;
+            taskViewModel.setStatusFilter(Task.Status.PENDING);
             updateTitle("Pending Tasks");
-            refreshTasks();
             return true;
         } else if (item.getItemId() == R.id.filter_completed) {
-            currentFilter = Task.Status.COMPLETED;
+            taskViewModel.setStatusFilter(Task.Status.COMPLETED);
             updateTitle("Completed Tasks");
-            refreshTasks();
             return true;
         } else if (item.getItemId() == R.id.sync_tasks) {
             performSync();
             return true;
+        } else if (item.getItemId() == R.id.cancel_sync) {
+            syncManager.cancelSync();
+            return true;
         } else if (item.getItemId() == R.id.load_demo_data) {
             loadDemoData();
             return true;
@@ -163,67 +232,33 @@ public class TaskListActivity extends AppCompatActivity implements TaskAdapter.O
         return super.onOptionsItemSelected(item);
     }
 
-    private void updateTitle(String title) {
-        setTitle(title);
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        // Offered only while a sync runs; every sync callback refreshes the menu
+        menu.findItem(R.id.cancel_sync).setVisible(syncManager != null && syncManager.isSyncing());
+        return super.onPrepareOptionsMenu(menu);
     }
 
-    private void refreshTasks() {
-        taskViewModel.getAllTasks().observe(this, tasks -> {
-            // Optionally call HF to get probabilities and annotate description
-            if (org.example.smarttasks.BuildConfig.HF_ENABLED) {
-                for (Task t : tasks) {
-                    final String baseText = t.getTitle() + ": " + t.getDescription();
-                    hfClient.scoreImportanceAndUrgency(baseText, new HfClient.ScoreCallback() {
-                        @Override
-                        public void onScores(Double imp, Double urg) {
-                            if (imp != null && urg != null) {
-                                String cleanDesc = t.getDescription();
-                                if (cleanDesc == null) cleanDesc = "";
-                                // strip previous markers
-                                if (cleanDesc.startsWith("[IMP:")) {
-                                    int second = cleanDesc.indexOf("]", cleanDesc.indexOf("]") + 1);
-                                    if (second > 0 && second + 1 < cleanDesc.length()) {
-                                        cleanDesc = cleanDesc.substring(second + 1).trim();
-                                    }
-                                }
-                                t.setDescription("[IMP:" + String.format(java.util.Locale.US, "%.2f", imp) + "][URG:" + String.format(java.util.Locale.US, "%.2f", urg) + "] " + cleanDesc);
-                            }
-                            TaskOrganizerAI.organizeTasks(tasks);
-                            List<Task> filteredTasks = filterTasks(tasks);
-                            adapter.setTasks(filteredTasks);
-                        }
-
-                        @Override
-                        public void onError(String message) {
-                            TaskOrganizerAI.organizeTasks(tasks);
-                            List<Task> filteredTasks = filterTasks(tasks);
-                            adapter.setTasks(filteredTasks);
-                        }
-                    });
-                }
-            } else {
-                TaskOrganizerAI.organizeTasks(tasks);
-                List<Task> filteredTasks = filterTasks(tasks);
-                adapter.setTasks(filteredTasks);
-            }
-        });
+    private void updateTitle(String title) {
+        setTitle(title);
     }
 
     private void setupSyncManager() {
         syncManager = SyncManager.getInstance(this);
         syncManager.setSyncCallback(new SyncManager.SyncCallback() {
             @Override
-            public void onSyncSuccess(List<Task> tasks) {
+            public void onSyncSuccess(int changedTasks) {
                 runOnUiThread(() -> {
+                    invalidateOptionsMenu();
+                    // The list follows the database; merged rows show up on their own
                     Toast.makeText(TaskListActivity.this, "Sync successful! Tasks synchronized.", Toast.LENGTH_SHORT).show();
-                    // Refresh the task list to show updated data
-                    refreshTasks();
                 });
             }
 
             @Override
             public void onSyncError(String error) {
                 runOnUiThread(() -> {
+                    invalidateOptionsMenu();
                     Toast.makeText(TaskListActivity.this, "Sync failed: " + error, Toast.LENGTH_LONG).show();
                 });
             }
@@ -231,6 +266,7 @@ public class TaskListActivity extends AppCompatActivity implements TaskAdapter.O
             @Override
             public void onSyncProgress(String message) {
                 runOnUiThread(() -> {
+                    invalidateOptionsMenu();
                     Toast.makeText(TaskListActivity.this, message, Toast.LENGTH_SHORT).show();
                 });
             }
@@ -243,9 +279,8 @@ public class TaskListActivity extends AppCompatActivity implements TaskAdapter.O
             return;
         }
 
-        taskViewModel.getAllTasks().observe(this, tasks -> {
-            syncManager.syncTasks(tasks);
-        });
+        // Only rows changed since the last sync token are exchanged
+        syncManager.syncTasks();
     }
 
     private void loadDemoData() {
@@ -1,8 +1,13 @@
 package org.example.smarttasks;
 
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.example.smarttasks.metrics.Counter;
+import org.example.smarttasks.metrics.Histogram;
+import org.example.smarttasks.metrics.Metrics;
+import org.example.smarttasks.metrics.Tracer;
 
 /**
  * AI-powered task organizer that intelligently sorts and manages tasks.
@@ -10,6 +15,15 @@ import java.util.List;
  */
 public class TaskOrganizerAI {
     public static boolean useCloudScores = true; // toggled by settings later
+    // Lists at least this long are scored and sorted on the fork/join pool (see RankingBenchmark)
+    public static final int PARALLEL_THRESHOLD = 20_000;
+
+    private static final String TAG = "TaskOrganizerAI";
+    private static final Histogram SORT_TIME = Metrics.get().timer("organizer.sort.time");
+    private static final Histogram SORT_SIZE = Metrics.get().histogram("organizer.sort.size");
+    private static final Counter PARALLEL_SORTS = Metrics.get().counter("organizer.sort.parallel");
+    // Whole days left at which due points step up (see computeDuePoints)
+    private static final int[] DUE_POINT_DAYS = {30, 7, 3};
 
     /**
      * Organizes the list of tasks using AI-powered sorting algorithm.
@@ -22,66 +36,217 @@ public class TaskOrganizerAI {
         // Default weights: Importance 3, Priority 2, Due date 2
         organizeTasksWithWeights(tasks, 3, 2, 2);
 
-        // Debug logging to verify sorting
-        System.out.println("AI Sorting Results:");
-        for (int i = 0; i < Math.min(tasks.size(), 5); i++) {
+        // Checked first so the capturing lambda is not allocated while tracing is off
+        if (Tracer.isEnabled(Tracer.Level.DEBUG)) {
+            Tracer.debug(TAG, () -> describeTop(tasks, 5));
+        }
+    }
+
+    private static String describeTop(List<Task> tasks, int limit) {
+        StringBuilder out = new StringBuilder("AI Sorting Results:");
+        for (int i = 0; i < Math.min(tasks.size(), limit); i++) {
             Task task = tasks.get(i);
-            System.out.println((i+1) + ". " + task.getTitle() + 
-                             " (Importance: " + task.getImportance() + 
-                             ", Priority: " + task.getPriority() + 
-                             ", DueScore: " + computeDuePoints(task) + 
-                             ", Score: " + getTaskPriorityScore(task, 3, 2, 2) + ")");
+            out.append('\n').append(i + 1).append(". ").append(task.getTitle())
+                    .append(" (Importance: ").append(task.getImportance())
+                    .append(", Priority: ").append(task.getPriority())
+                    .append(", DueScore: ").append(computeDuePoints(task))
+                    .append(", Score: ").append(getTaskPriorityScore(task, 3, 2, 2)).append(')');
         }
+        return out.toString();
     }
 
     /**
      * Sort with explicit weights for (importance, priority, due-date).
      * Higher weights make that criterion contribute more to the final score.
+     * Each task is scored once against a single captured clock; the sort then runs on
+     * primitive keys (score DESC, dueDate, createdAt) and the list is reordered at the end.
+     * From {@link #PARALLEL_THRESHOLD} tasks up, on a multi-core device, scoring and sorting are
+     * split across the common fork/join pool; the sort is stable either way, so the order is
+     * the same.
      */
     public static void organizeTasksWithWeights(List<Task> tasks, int importanceWeight, int priorityWeight, int dueWeight) {
+        organizeTasksWithWeights(tasks, importanceWeight, priorityWeight, dueWeight, PARALLEL_THRESHOLD);
+    }
+
+    /** As above, going parallel from {@code parallelThreshold} tasks up instead of the default. */
+    public static void organizeTasksWithWeights(List<Task> tasks, int importanceWeight, int priorityWeight, int dueWeight,
+            int parallelThreshold) {
         if (tasks == null || tasks.isEmpty()) return;
-        // Sort using the parameterized comparator
-        Collections.sort(tasks, new TaskComparator(importanceWeight, priorityWeight, dueWeight));
-        
+        organizeTasksWithWeights(tasks, importanceWeight, priorityWeight, dueWeight,
+                runsParallel(tasks.size(), parallelThreshold));
+    }
+
+    static void organizeTasksWithWeights(List<Task> tasks, int importanceWeight, int priorityWeight, int dueWeight,
+            boolean parallel) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        int n = tasks.size();
+        Task[] source = tasks.toArray(new Task[0]);
+
+        // Decorate: keys[3i] = score, keys[3i+1] = dueDate, keys[3i+2] = createdAt
+        long[] keys = new long[3 * n];
+        int[] order = new int[n];
+        forEachRange(n, parallel, (from, to) ->
+                scoreRange(source, keys, order, now, importanceWeight, priorityWeight, dueWeight, from, to));
+        // Sort: stable, so ties keep their input order exactly like Collections.sort did
+        sortByKeys(order, keys, parallel);
+
+        // Undecorate
+        ListIterator<Task> it = tasks.listIterator();
+        for (int i = 0; i < n; i++) {
+            it.next();
+            it.set(source[order[i]]);
+        }
+        SORT_TIME.recordSince(start);
+        SORT_SIZE.record(n);
+    }
+
+    private static void scoreRange(Task[] source, long[] keys, int[] order, long now,
+            int importanceWeight, int priorityWeight, int dueWeight, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Task task = source[i];
+            keys[3 * i] = getStaticScore(task, importanceWeight, priorityWeight)
+                    + dueWeight * computeDuePoints(task, now);
+            keys[3 * i + 1] = task.getDueDate();
+            keys[3 * i + 2] = task.getCreatedAt();
+            order[i] = i;
+        }
+    }
+
+    /** Whether {@code n} items reach {@code parallelThreshold} on a device with more than one core. */
+    static boolean runsParallel(int n, int parallelThreshold) {
+        return n >= parallelThreshold && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /** Work on the index range {@code [from, to)}; ranges handed out at once never overlap. */
+    interface RangeWork {
+        void run(int from, int to);
+    }
+
+    /** Runs {@code work} over {@code [0, n)}, split across the fork/join pool if {@code parallel}. */
+    static void forEachRange(int n, boolean parallel, RangeWork work) {
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new RangeAction(work, 0, n));
+        } else {
+            work.run(0, n);
+        }
     }
 
     /**
-     * AI-powered comparator that implements smart task prioritization.
+     * Stable sort of {@code order}, indices of key triples in {@code keys}: {@code keys[3i]} DESC,
+     * then {@code keys[3i+1]}, then {@code keys[3i+2]}. On the fork/join pool if {@code parallel}.
      */
-    private static class TaskComparator implements Comparator<Task> {
-        private final int importanceWeight;
-        private final int priorityWeight;
-        private final int dueWeight;
+    static void sortByKeys(int[] order, long[] keys, boolean parallel) {
+        int n = order.length;
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new SortAction(order, new int[n], keys, 0, n));
+            PARALLEL_SORTS.inc();
+        } else {
+            sortByKeys(order, new int[n], keys, 0, n);
+        }
+    }
+
+    // Ranges at most this long are scored or sorted by one fork/join worker
+    private static final int PARALLEL_GRAIN = 4096;
+
+    /** Runs a {@link RangeWork} over {@code [from, to)}, splitting across workers. */
+    private static final class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeWork work;
+        private final int from;
+        private final int to;
 
-        private TaskComparator() {
-            this(3, 2, 2);
+        RangeAction(RangeWork work, int from, int to) {
+            this.work = work;
+            this.from = from;
+            this.to = to;
         }
 
-        private TaskComparator(int importanceWeight, int priorityWeight, int dueWeight) {
-            this.importanceWeight = importanceWeight;
-            this.priorityWeight = priorityWeight;
-            this.dueWeight = dueWeight;
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                work.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(work, from, mid), new RangeAction(work, mid, to));
+        }
+    }
+
+    /** {@link #sortByKeys} with the two halves of each split sorted by different workers. */
+    private static final class SortAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] order;
+        private final int[] buffer;
+        private final long[] keys;
+        private final int from;
+        private final int to;
+
+        SortAction(int[] order, int[] buffer, long[] keys, int from, int to) {
+            this.order = order;
+            this.buffer = buffer;
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
         }
+
         @Override
-        public int compare(Task t1, Task t2) {
-            int score1 = getTaskPriorityScore(t1, importanceWeight, priorityWeight, dueWeight);
-            int score2 = getTaskPriorityScore(t2, importanceWeight, priorityWeight, dueWeight);
-            
-            // Higher score = higher priority (appears first)
-            int scoreCompare = Integer.compare(score2, score1);
-            if (scoreCompare != 0) {
-                return scoreCompare;
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                sortByKeys(order, buffer, keys, from, to);
+                return;
             }
-            
-            // If scores are equal, use due date as tiebreaker
-            int dueDateCompare = Long.compare(t1.getDueDate(), t2.getDueDate());
-            if (dueDateCompare != 0) {
-                return dueDateCompare;
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortAction(order, buffer, keys, from, mid), new SortAction(order, buffer, keys, mid, to));
+            mergeRuns(order, buffer, keys, from, mid, to);
+        }
+    }
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /** Stable merge sort of {@code order[from, to)} by the packed keys; no per-comparison allocation. */
+    private static void sortByKeys(int[] order, int[] buffer, long[] keys, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int current = order[i];
+                int j = i - 1;
+                while (j >= from && compareKeys(keys, order[j], current) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = current;
             }
-            
-            // Final tiebreaker: creation time (older first)
-            return Long.compare(t1.getCreatedAt(), t2.getCreatedAt());
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortByKeys(order, buffer, keys, from, mid);
+        sortByKeys(order, buffer, keys, mid, to);
+        mergeRuns(order, buffer, keys, from, mid, to);
+    }
+
+    /** Stably merges the sorted runs {@code order[from, mid)} and {@code order[mid, to)}. */
+    private static void mergeRuns(int[] order, int[] buffer, long[] keys, int from, int mid, int to) {
+        if (compareKeys(keys, order[mid - 1], order[mid]) <= 0) {
+            return; // already in order, common for lists that were ranked before
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from, right = mid, out = from;
+        while (left < mid && right < to) {
+            order[out++] = compareKeys(keys, buffer[right], buffer[left]) < 0 ? buffer[right++] : buffer[left++];
         }
+        while (left < mid) order[out++] = buffer[left++];
+        while (right < to) order[out++] = buffer[right++];
+    }
+
+    /** Higher score first, then earlier due date, then older creation time. */
+    private static int compareKeys(long[] keys, int a, int b) {
+        int scoreCompare = Long.compare(keys[3 * b], keys[3 * a]);
+        if (scoreCompare != 0) return scoreCompare;
+        int dueDateCompare = Long.compare(keys[3 * a + 1], keys[3 * b + 1]);
+        if (dueDateCompare != 0) return dueDateCompare;
+        return Long.compare(keys[3 * a + 2], keys[3 * b + 2]);
     }
 
     /**
@@ -90,9 +255,31 @@ public class TaskOrganizerAI {
      * @return true if task is urgent (due within 3 days)
      */
     public static boolean isTaskUrgent(Task task) {
-        long currentTime = System.currentTimeMillis();
+        return isTaskUrgent(task, System.currentTimeMillis());
+    }
+
+    static boolean isTaskUrgent(Task task, long now) {
         long threeDaysInMillis = 3 * 24 * 60 * 60 * 1000L;
-        return (task.getDueDate() - currentTime) <= threeDaysInMillis;
+        return (task.getDueDate() - now) <= threeDaysInMillis;
+    }
+
+    /**
+     * The first time after {@code now} at which the task's due points or urgency change, or
+     * {@link Long#MAX_VALUE} if they never will. They change only at the 30/7/3-day
+     * boundaries, so between those times neither needs recomputing.
+     */
+    static long nextDueChange(Task task, long now) {
+        long dayMs = 24L * 60 * 60 * 1000;
+        long due = task.getDueDate();
+        long next = Long.MAX_VALUE;
+        for (int days : DUE_POINT_DAYS) {
+            // Whole days left drop to `days` one millisecond after due - (days + 1) days
+            long at = due - (days + 1) * dayMs + 1;
+            if (at > now) next = Math.min(next, at);
+        }
+        long urgentAt = due - 3 * dayMs;
+        if (urgentAt > now) next = Math.min(next, urgentAt);
+        return next;
     }
 
     /**
@@ -106,31 +293,41 @@ public class TaskOrganizerAI {
 
     /** Parameterized scoring using importance, priority and due date weights. */
     public static int getTaskPriorityScore(Task task, int importanceWeight, int priorityWeight, int dueWeight) {
+        int duePoints = computeDuePoints(task);                     // 0..3 (overdue/soon => higher)
+        return getStaticScore(task, importanceWeight, priorityWeight) + dueWeight * duePoints;
+    }
+
+    /**
+     * Time-independent part of the score with the default weights. This is what gets
+     * persisted in the {@code score} column; due points are added at read time.
+     */
+    public static int getStaticScore(Task task) {
+        return getStaticScore(task, 3, 2);
+    }
+
+    /** Importance and priority points plus the optional cloud blend, without due points. */
+    public static int getStaticScore(Task task, int importanceWeight, int priorityWeight) {
         int importancePoints = mapImportance(task.getImportance()); // 3,2,1
         int priorityPoints = mapPriority(task.getPriority());       // 3,2,1
-        int duePoints = computeDuePoints(task);                     // 0..3 (overdue/soon => higher)
 
         int score = importanceWeight * importancePoints
-                + priorityWeight * priorityPoints
-                + dueWeight * duePoints;
-
-        // Optional: blend cloud probabilities if available via tags
-        try {
-            String desc = task.getDescription();
-            if (desc != null && desc.startsWith("[IMP:")) {
-                int impStart = desc.indexOf("[IMP:") + 5;
-                int impEnd = desc.indexOf("]", impStart);
-                int urgStart = desc.indexOf("[URG:") + 5;
-                int urgEnd = desc.indexOf("]", urgStart);
-                double imp = Double.parseDouble(desc.substring(impStart, impEnd));
-                double urg = Double.parseDouble(desc.substring(urgStart, urgEnd));
-                score += (int) Math.round(0.5 * (imp * 10) + 0.5 * (urg * 10));
-            }
-        } catch (Exception ignored) { }
+                + priorityWeight * priorityPoints;
+
+        // Optional: blend cloud probabilities if the task has been scored
+        Double imp = task.getCloudImportance();
+        Double urg = task.getCloudUrgency();
+        if (imp != null && urg != null) {
+            score += cloudBonus(imp, urg);
+        }
 
         return score;
     }
 
+    /** Points added for Hugging Face HIGH probabilities, 0..10. */
+    public static int cloudBonus(double importanceProb, double urgencyProb) {
+        return (int) Math.round(0.5 * (importanceProb * 10) + 0.5 * (urgencyProb * 10));
+    }
+
     private static int mapImportance(Task.Importance imp) {
         switch (imp) {
             case HIGH: return 3;
@@ -157,10 +354,13 @@ public class TaskOrganizerAI {
      * - otherwise: 0
      */
     private static int computeDuePoints(Task task) {
-        long now = System.currentTimeMillis();
+        return computeDuePoints(task, System.currentTimeMillis());
+    }
+
+    static int computeDuePoints(Task task, long now) {
         long diff = task.getDueDate() - now;
         long dayMs = 24L * 60 * 60 * 1000;
-        long days = (long) Math.floor((double) diff / dayMs);
+        long days = Math.floorDiv(diff, dayMs);
         if (days <= 3) return 3;         // includes overdue (negative days)
         if (days <= 7) return 2;
         if (days <= 30) return 1;
@@ -0,0 +1,198 @@
+package org.example.smarttasks;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable task filter that is translated into SQL, so only matching rows are ever
+ * loaded. Unset criteria match everything. Status equality is served by the
+ * (status, score DESC, dueDate, createdAt) index.
+ */
+public final class TaskQuery {
+    private final Task.Status status;
+    private final Long dueFrom; // inclusive
+    private final Long dueTo;   // exclusive
+    private final Set<Task.Priority> priorities;
+    private final Set<Task.Importance> importances;
+
+    private TaskQuery(Builder builder) {
+        this.status = builder.status;
+        this.dueFrom = builder.dueFrom;
+        this.dueTo = builder.dueTo;
+        this.priorities = builder.priorities == null ? null
+                : Collections.unmodifiableSet(EnumSet.copyOf(builder.priorities));
+        this.importances = builder.importances == null ? null
+                : Collections.unmodifiableSet(EnumSet.copyOf(builder.importances));
+    }
+
+    public static TaskQuery all() {
+        return new Builder().build();
+    }
+
+    /** @param status Status to keep, or null for every task */
+    public static TaskQuery withStatus(Task.Status status) {
+        return new Builder().setStatus(status).build();
+    }
+
+    public Task.Status getStatus() { return status; }
+    public Long getDueFrom() { return dueFrom; }
+    public Long getDueTo() { return dueTo; }
+    public Set<Task.Priority> getPriorities() { return priorities; }
+    public Set<Task.Importance> getImportances() { return importances; }
+
+    public Builder buildUpon() {
+        Builder builder = new Builder()
+                .setStatus(status)
+                .setDueWindow(dueFrom, dueTo);
+        if (priorities != null) builder.setPriorities(priorities);
+        if (importances != null) builder.setImportances(importances);
+        return builder;
+    }
+
+    /**
+     * Appends the WHERE condition (without the keyword) and adds its bind arguments.
+     * Always yields a valid expression, "1" when nothing is filtered.
+     */
+    public String appendWhere(StringBuilder sql, List<Object> args) {
+        int start = sql.length();
+        if (status != null) {
+            and(sql, start).append("status = ?");
+            args.add(status.name());
+        }
+        if (dueFrom != null) {
+            and(sql, start).append("dueDate >= ?");
+            args.add(dueFrom);
+        }
+        if (dueTo != null) {
+            and(sql, start).append("dueDate < ?");
+            args.add(dueTo);
+        }
+        if (priorities != null) {
+            and(sql, start).append("priority IN (");
+            appendPlaceholders(sql, args, priorities);
+        }
+        if (importances != null) {
+            and(sql, start).append("importance IN (");
+            appendPlaceholders(sql, args, importances);
+        }
+        if (sql.length() == start) {
+            sql.append("1");
+        }
+        return sql.toString();
+    }
+
+    /** In-memory twin of {@link #appendWhere}, for rows that are already loaded. */
+    public boolean matches(Task task) {
+        if (status != null && task.getStatus() != status) return false;
+        if (dueFrom != null && task.getDueDate() < dueFrom) return false;
+        if (dueTo != null && task.getDueDate() >= dueTo) return false;
+        if (priorities != null && !priorities.contains(task.getPriority())) return false;
+        return importances == null || importances.contains(task.getImportance());
+    }
+
+    /** Matching rows in persisted score order: score DESC, dueDate, createdAt. */
+    public SupportSQLiteQuery toRankedSelect() {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM tasks WHERE ");
+        appendWhere(sql, args);
+        sql.append(" ORDER BY score DESC, dueDate, createdAt");
+        return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Up to {@code limit} matching rows without both cloud scores, in persisted score order so
+     * the top of the list is scored first.
+     */
+    public SupportSQLiteQuery toUnscoredSelect(int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM tasks WHERE ");
+        appendWhere(sql, args);
+        sql.append(" AND (cloudImportance IS NULL OR cloudUrgency IS NULL)")
+                .append(" ORDER BY score DESC, dueDate, createdAt LIMIT ?");
+        args.add(limit);
+        return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+    }
+
+    /** Number of matching rows. */
+    public SupportSQLiteQuery toCountSelect() {
+        List<Object> args = new ArrayList<>();
+        String sql = appendWhere(new StringBuilder("SELECT COUNT(*) FROM tasks WHERE "), args);
+        return new SimpleSQLiteQuery(sql, args.toArray());
+    }
+
+    private static StringBuilder and(StringBuilder sql, int start) {
+        return sql.length() == start ? sql : sql.append(" AND ");
+    }
+
+    private static void appendPlaceholders(StringBuilder sql, List<Object> args, Set<? extends Enum<?>> values) {
+        if (values.isEmpty()) {
+            // Nothing selected matches nothing
+            sql.append("NULL)");
+            return;
+        }
+        boolean first = true;
+        for (Enum<?> value : values) {
+            sql.append(first ? "?" : ", ?");
+            args.add(value.name());
+            first = false;
+        }
+        sql.append(")");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskQuery)) return false;
+        TaskQuery other = (TaskQuery) o;
+        return status == other.status
+                && Objects.equals(dueFrom, other.dueFrom)
+                && Objects.equals(dueTo, other.dueTo)
+                && Objects.equals(priorities, other.priorities)
+                && Objects.equals(importances, other.importances);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, dueFrom, dueTo, priorities, importances);
+    }
+
+    public static class Builder {
+        private Task.Status status;
+        private Long dueFrom;
+        private Long dueTo;
+        private Set<Task.Priority> priorities;
+        private Set<Task.Importance> importances;
+
+        public Builder setStatus(Task.Status status) {
+            this.status = status;
+            return this;
+        }
+
+        /** Due dates in [from, to); either bound may be null for an open window. */
+        public Builder setDueWindow(Long from, Long to) {
+            this.dueFrom = from;
+            this.dueTo = to;
+            return this;
+        }
+
+        public Builder setPriorities(Set<Task.Priority> priorities) {
+            this.priorities = priorities;
+            return this;
+        }
+
+        public Builder setImportances(Set<Task.Importance> importances) {
+            this.importances = importances;
+            return this;
+        }
+
+        public TaskQuery build() {
+            return new TaskQuery(this);
+        }
+    }
+}
@@ -2,59 +2,465 @@ package org.example.smarttasks;
 
 import android.app.Application;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.LivePagedListBuilder;
+import androidx.paging.PagedList;
+import androidx.room.InvalidationTracker;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import org.example.smarttasks.metrics.Counter;
+import org.example.smarttasks.metrics.Histogram;
+import org.example.smarttasks.metrics.Metrics;
 import org.example.smarttasks.sync.SyncManager;
 
-public class TaskRepository {
+/**
+ * Single entry point for task data. The paged list is served from a {@link RankedIndex} of the
+ * tasks matching the current query: it is loaded once per query and then updated per changed
+ * task, from this repository's writes and from sync pulls, instead of re-querying and re-sorting.
+ * Queries matching too many rows to hold are keyset-paged from SQL instead.
+ * Tasks that cross a due boundary are re-ranked by a single wakeup scheduled for the earliest
+ * one, so nothing runs between changes.
+ */
+public class TaskRepository implements SyncManager.TaskChangeListener {
+    // SQLite allows 999 bind variables per statement
+    private static final int MAX_IDS_PER_QUERY = 500;
+    // Rows per write transaction in the bulk paths; observers are invalidated once per chunk
+    static final int BULK_CHUNK_SIZE = 1000;
+    // Unscored tasks handed to one cloud-scoring scan
+    static final int CLOUD_SCAN_LIMIT = 100;
+    // Queries matching more rows stay keyset-paged from SQL instead of being held in a RankedIndex
+    static final int INDEX_MAX_ROWS = 20_000;
+
+    private static final PagedList.Config PAGED_LIST_CONFIG = new PagedList.Config.Builder()
+            .setPageSize(50)
+            .setInitialLoadSizeHint(100)
+            .setPrefetchDistance(100)
+            .setEnablePlaceholders(true)
+            .build();
+
+    private static final Histogram WRITE_TIME = Metrics.get().timer("db.write.time");
+    private static final Counter WRITE_ROWS = Metrics.get().counter("db.write.rows");
+    private static final Histogram SEARCH_TIME = Metrics.get().timer("db.search.time");
+    private static final Histogram INDEX_LOAD_TIME = Metrics.get().timer("index.load.time");
+    private static final Counter INDEX_OVERSIZED = Metrics.get().counter("index.load.oversized");
+    private static final Histogram INDEX_UPDATE_TIME = Metrics.get().timer("index.update.time");
+    private static final Histogram DUE_REFRESH_TIME = Metrics.get().timer("index.due.time");
+    private static final Counter DUE_RESCORED = Metrics.get().counter("index.due.rescored");
+
+    private TaskDatabase database;
     private TaskDao taskDao;
-    private LiveData<List<Task>> allTasks;
     private ExecutorService executorService;
+    // Only fires due wakeups, which then run on the executor; writes never go through it, so
+    // their exceptions are not swallowed into a ScheduledFuture
+    private final ScheduledExecutorService dueTimer = Executors.newSingleThreadScheduledExecutor();
     private SyncManager syncManager;
+    private TaskCache taskCache;
+    // Executor thread only: the index behind the current paged list and the query it holds
+    private TaskQuery indexedQuery;
+    private RankedIndexDataSource.Factory indexed;
+    // Executor thread only: the pending due refresh and when it fires
+    private ScheduledFuture<?> dueWakeup;
+    private long dueWakeupAt = Long.MAX_VALUE;
+    // Index loads run on the executor; a load superseded by a newer query is skipped
+    private final LatestOnlyStage<IndexLoad> indexLoads;
+
+    /** A query, the paged list factory whose index it fills, and whether that list is ready. */
+    private static final class IndexLoad {
+        final TaskQuery query;
+        final RankedIndexDataSource.Factory factory;
+        final MutableLiveData<Boolean> loaded = new MutableLiveData<>(false);
+
+        IndexLoad(TaskQuery query, RankedIndexDataSource.Factory factory) {
+            this.query = query;
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * Search results for one match expression, re-queried on the executor while observed and
+     * whenever the tasks table changes. Invalidations that arrive during a query fold into one rerun.
+     */
+    private final class SearchLiveData extends LiveData<List<TaskSearch.Result>> {
+        private final String match;
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("tasks") {
+            @Override
+            public void onInvalidated(Set<String> tables) {
+                if (hasActiveObservers()) refresh();
+            }
+        };
+
+        SearchLiveData(String match) {
+            this.match = match;
+        }
+
+        @Override
+        protected void onActive() {
+            database.getInvalidationTracker().addObserver(observer);
+            refresh();
+        }
+
+        @Override
+        protected void onInactive() {
+            database.getInvalidationTracker().removeObserver(observer);
+        }
+
+        private void refresh() {
+            if (!pending.compareAndSet(false, true)) return;
+            executorService.execute(() -> {
+                pending.set(false);
+                // In a transaction so both steps see the same snapshot
+                postValue(database.runInTransaction(() -> search(match, TaskSearch.MAX_RESULTS)));
+            });
+        }
+    }
 
     public TaskRepository(Application application) {
-        TaskDatabase database = TaskDatabase.getInstance(application);
+        database = TaskDatabase.getInstance(application);
         taskDao = database.taskDao();
-        allTasks = taskDao.getAllTasks();
         executorService = Executors.newSingleThreadExecutor();
+        indexLoads = new LatestOnlyStage<>("index.load", executorService, this::loadIndex);
         syncManager = SyncManager.getInstance(application);
+        syncManager.addTaskChangeListener(this);
+        taskCache = TaskCache.getInstance(application);
+    }
+
+    /** Stops following sync changes; call when the owner goes away. */
+    public void close() {
+        syncManager.removeTaskChangeListener(this);
+        executorService.execute(this::cancelDueWakeup);
     }
 
+    // Each write records its outbox entry in the same transaction, so no change is lost offline
+
     public void insert(Task task) {
         executorService.execute(() -> {
-            taskDao.insert(task);
-            // Sync to server
-            syncManager.uploadTask(task);
+            task.setScore(TaskOrganizerAI.getStaticScore(task));
+            task.setUpdatedAt(System.currentTimeMillis());
+            write(1, () -> {
+                task.setId((int) taskDao.insert(task));
+                syncManager.recordChange(task.getId(), PendingOp.Op.INSERT);
+            });
+            applyToIndex(false, Collections.singletonList(task), Collections.emptyList());
+            syncManager.requestFlush();
         });
     }
 
     public void update(Task task) {
+        executorService.execute(() -> writeUpdate(task));
+    }
+
+    /**
+     * Applies {@code change} to a copy of the stored task and saves it, keeping every field the
+     * change does not touch. The task is read through the cache; nothing happens if it is gone.
+     */
+    public void edit(int id, Consumer<Task> change) {
         executorService.execute(() -> {
+            Task stored = taskCache.get(id);
+            if (stored == null) return;
+            Task edited = new Task(stored);
+            change.accept(edited);
+            writeUpdate(edited);
+        });
+    }
+
+    /** Executor thread. */
+    private void writeUpdate(Task task) {
+        task.setScore(TaskOrganizerAI.getStaticScore(task));
+        task.setUpdatedAt(System.currentTimeMillis());
+        write(1, () -> {
             taskDao.update(task);
-            // Sync to server
-            syncManager.updateTaskOnServer(task);
+            syncManager.recordChange(task.getId(), PendingOp.Op.UPDATE);
         });
+        reindex(Collections.singletonList(task.getId()));
+        syncManager.requestFlush();
     }
 
     public void delete(Task task) {
         executorService.execute(() -> {
-            taskDao.delete(task);
-            // Sync to server
-            syncManager.deleteTaskOnServer(task.getId());
+            write(1, () -> {
+                taskDao.delete(task);
+                syncManager.recordChange(task.getId(), PendingOp.Op.DELETE);
+            });
+            applyToIndex(false, Collections.emptyList(), Collections.singletonList(task.getId()));
+            syncManager.requestFlush();
+        });
+    }
+
+    /** Inserts new tasks in chunked transactions and flushes them to sync as one batch. */
+    public void insertAll(List<Task> tasks) {
+        List<Task> batch = new ArrayList<>(tasks);
+        executorService.execute(() -> {
+            writeInChunks(batch, false, true);
+            syncManager.requestFlush();
+        });
+    }
+
+    /**
+     * Executor thread: scores and writes the tasks, {@link #BULK_CHUNK_SIZE} rows per transaction.
+     * With {@code clearFirst} the old rows are deleted in the first transaction, so observers
+     * never see an empty table in between. With {@code recordSync} the outbox entries are
+     * written in the same transactions.
+     */
+    private void writeInChunks(List<Task> tasks, boolean clearFirst, boolean recordSync) {
+        long now = System.currentTimeMillis();
+        for (Task task : tasks) {
+            task.setScore(TaskOrganizerAI.getStaticScore(task));
+            task.setUpdatedAt(now);
+        }
+        if (tasks.isEmpty()) {
+            if (clearFirst) {
+                write(0, taskDao::deleteAllTasks);
+                applyToIndex(true, tasks, Collections.emptyList());
+            }
+            return;
+        }
+        for (int from = 0; from < tasks.size(); from += BULK_CHUNK_SIZE) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + BULK_CHUNK_SIZE, tasks.size()));
+            boolean clear = clearFirst && from == 0;
+            write(chunk.size(), () -> {
+                if (clear) {
+                    taskDao.deleteAllTasks();
+                }
+                List<Long> ids = taskDao.insertAll(chunk);
+                for (int i = 0; i < chunk.size(); i++) {
+                    Task task = chunk.get(i);
+                    task.setId(ids.get(i).intValue());
+                    if (recordSync) {
+                        syncManager.recordChange(task.getId(), PendingOp.Op.INSERT);
+                    }
+                }
+            });
+        }
+        // The tasks were scored above exactly as stored, so they go into the index as they are
+        applyToIndex(clearFirst, tasks, Collections.emptyList());
+    }
+
+    /**
+     * Runs {@code body} as one transaction and records its latency. The task cache is dropped as
+     * soon as it commits, since Room's invalidation tracker reports the write only later and an
+     * edit queued behind it must not start from the old row.
+     */
+    private void write(int rows, Runnable body) {
+        long start = System.nanoTime();
+        database.runInTransaction(body);
+        taskCache.invalidate();
+        WRITE_TIME.recordSince(start);
+        WRITE_ROWS.add(rows);
+    }
+
+    /**
+     * Up to {@link #CLOUD_SCAN_LIMIT} tasks matching the query that still lack cloud scores, top of
+     * the list first. Scored tasks drop out, so the next ones follow as results are saved.
+     */
+    public LiveData<List<Task>> getUnscoredTasks(TaskQuery query) {
+        return taskDao.observeTasks(query.toUnscoredSelect(CLOUD_SCAN_LIMIT));
+    }
+
+    /**
+     * Tasks matching the query in ranking order. The first pages come straight from SQL through
+     * {@link RankedTaskDataSource}, so they do not wait for the index. Meanwhile the matching rows
+     * are loaded into a new {@link RankedIndex}, and the list switches to it once it is filled;
+     * after that each change costs O(log n). The index of the previous query is dropped. When the
+     * query changes again before a load has run, or while its rows are read, only the newest query
+     * is indexed.
+     *
+     * A query matching more than {@link #INDEX_MAX_ROWS} rows is never indexed: holding every row
+     * would cost memory in proportion to the table, so such a list stays keyset-paged, keeping only
+     * its loaded pages, and re-runs the page queries after each change instead.
+     */
+    public LiveData<PagedList<Task>> getPagedTasks(TaskQuery query) {
+        LiveData<PagedList<Task>> keyset =
+                new LivePagedListBuilder<>(new RankedTaskDataSource.Factory(database, query), PAGED_LIST_CONFIG).build();
+        RankedIndexDataSource.Factory factory =
+                new RankedIndexDataSource.Factory(new RankedIndex(System::currentTimeMillis));
+        LiveData<PagedList<Task>> ranked = new LivePagedListBuilder<>(factory, PAGED_LIST_CONFIG).build();
+        IndexLoad load = new IndexLoad(query, factory);
+        indexLoads.submit(load);
+        return Transformations.switchMap(load.loaded, loaded -> loaded ? ranked : keyset);
+    }
+
+    /**
+     * Executor thread: reads the query's rows into its index and makes it the one kept current,
+     * unless the query matches too many rows to hold.
+     */
+    private void loadIndex(IndexLoad load, BooleanSupplier superseded) {
+        long start = System.nanoTime();
+        if (taskDao.count(load.query.toCountSelect()) > INDEX_MAX_ROWS) {
+            INDEX_OVERSIZED.inc();
+            indexedQuery = null;
+            indexed = null;
+            cancelDueWakeup();
+            return;
+        }
+        List<Task> rows = taskDao.getTasks(load.query.toRankedSelect());
+        if (superseded.getAsBoolean()) return;
+        indexedQuery = load.query;
+        indexed = load.factory;
+        load.factory.update(index -> {
+            index.putAll(rows);
+            return true;
+        });
+        INDEX_LOAD_TIME.recordSince(start);
+        load.loaded.postValue(true);
+        cancelDueWakeup();
+        scheduleDueWakeup();
+    }
+
+    @Override
+    public void onTasksChanged(List<Task> upserted, List<Integer> deletedIds) {
+        executorService.execute(() -> applyToIndex(false, upserted, deletedIds));
+    }
+
+    /** Executor thread: re-reads the tasks (their stored score may be computed in SQL) into the index. */
+    private void reindex(List<Integer> ids) {
+        List<Task> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            rows.addAll(taskDao.getTasksByIds(ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()))));
+        }
+        applyToIndex(false, rows, Collections.emptyList());
+    }
+
+    /**
+     * Executor thread: brings the index in line with committed changes. Matching tasks go in with
+     * one {@link RankedIndex#putAll}, so a full resync is sorted and merged rather than inserted
+     * one by one. Tasks that no longer match the query leave it. With {@code clear} the index is
+     * emptied first.
+     */
+    private void applyToIndex(boolean clear, Collection<Task> changed, Collection<Integer> deletedIds) {
+        RankedIndexDataSource.Factory factory = indexed;
+        if (factory == null) return;
+        TaskQuery query = indexedQuery;
+        long start = System.nanoTime();
+        factory.update(index -> {
+            if (clear) index.clear();
+            List<Task> matching = new ArrayList<>(changed.size());
+            for (Task task : changed) {
+                if (query.matches(task)) {
+                    matching.add(task);
+                } else {
+                    index.remove(task.getId());
+                }
+            }
+            index.putAll(matching);
+            for (int id : deletedIds) {
+                index.remove(id);
+            }
+            return true;
+        });
+        INDEX_UPDATE_TIME.recordSince(start);
+        scheduleDueWakeup();
+    }
+
+    /**
+     * Re-ranks the tasks whose due points or urgency changed with the passage of time. Runs on
+     * its own at the next due boundary; call it after the app was in the background, since the
+     * scheduled wakeup does not fire while the device sleeps.
+     */
+    public void refreshDueDates() {
+        executorService.execute(this::refreshDue);
+    }
+
+    /** Executor thread: re-ranks the tasks past a due boundary and schedules the next wakeup. */
+    private void refreshDue() {
+        cancelDueWakeup();
+        RankedIndexDataSource.Factory factory = indexed;
+        if (factory == null) return;
+        long start = System.nanoTime();
+        factory.update(index -> {
+            int rescored = index.refreshDue();
+            DUE_RESCORED.add(rescored);
+            return rescored > 0;
+        });
+        DUE_REFRESH_TIME.recordSince(start);
+        scheduleDueWakeup();
+    }
+
+    /** Executor thread: makes sure a wakeup is pending for the index's next due boundary. */
+    private void scheduleDueWakeup() {
+        RankedIndexDataSource.Factory factory = indexed;
+        if (factory == null) return;
+        long at = factory.getIndex().nextDueRefresh();
+        if (at >= dueWakeupAt) return;
+        cancelDueWakeup();
+        dueWakeupAt = at;
+        dueWakeup = dueTimer.schedule(() -> executorService.execute(this::refreshDue),
+                Math.max(0, at - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelDueWakeup() {
+        if (dueWakeup != null) {
+            dueWakeup.cancel(false);
+            dueWakeup = null;
+        }
+        dueWakeupAt = Long.MAX_VALUE;
+    }
+
+    /** Persists Hugging Face probabilities (and the resulting score) for already-scored tasks. */
+    public void updateCloudScores(List<Task> tasks) {
+        executorService.execute(() -> {
+            List<Integer> ids = new ArrayList<>(tasks.size());
+            write(tasks.size(), () -> {
+                for (Task task : tasks) {
+                    taskDao.updateCloudScores(task.getId(), task.getCloudImportance(), task.getCloudUrgency(),
+                            task.getScoredAt(), TaskOrganizerAI.cloudBonus(task.getCloudImportance(), task.getCloudUrgency()));
+                    ids.add(task.getId());
+                }
+            });
+            reindex(ids);
         });
     }
 
-    public LiveData<List<Task>> getAllTasks() {
-        return allTasks;
+    /**
+     * Full-text search, re-run whenever tasks change; an empty list when {@code text} has no words.
+     * Prefix matches on title and description, best first, at most {@link TaskSearch#MAX_RESULTS}.
+     */
+    public LiveData<List<TaskSearch.Result>> search(String text) {
+        String match = TaskSearch.toMatchQuery(text);
+        if (match == null) {
+            return new MutableLiveData<>(Collections.emptyList());
+        }
+        return new SearchLiveData(match);
     }
 
+    private List<TaskSearch.Result> search(String match, int limit) {
+        long start = System.nanoTime();
+        List<Integer> ids = TaskSearch.topIds(taskDao.matchTasks(match), limit);
+        if (ids.isEmpty()) {
+            SEARCH_TIME.recordSince(start);
+            return Collections.emptyList();
+        }
+        Map<Integer, Integer> order = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            order.put(ids.get(i), i);
+        }
+        List<TaskSearch.Result> rows = taskDao.getSearchResults(match, ids);
+        Collections.sort(rows, (a, b) -> Integer.compare(order.get(a.task.getId()), order.get(b.task.getId())));
+        SEARCH_TIME.recordSince(start);
+        return rows;
+    }
+
+    /** The task from the entity cache, read from the database only on a miss; null if it is gone. */
     public LiveData<Task> getTaskById(int id) {
-        return taskDao.getTaskById(id);
+        return taskCache.load(id);
     }
 
-    public void syncTasks(List<Task> localTasks) {
-        syncManager.syncTasks(localTasks);
+    public void syncTasks() {
+        syncManager.syncTasks();
     }
 
     public boolean isOnline() {
@@ -63,14 +469,8 @@ public class TaskRepository {
 
     public void populateDummyData() {
         executorService.execute(() -> {
-            // Clear existing tasks
-            taskDao.deleteAllTasks();
-            
-            // Generate and insert dummy tasks
-            List<Task> dummyTasks = DummyDataGenerator.generateDummyTasks();
-            for (Task task : dummyTasks) {
-                taskDao.insert(task);
-            }
+            // Replace existing tasks with generated ones
+            writeInChunks(DummyDataGenerator.generateDummyTasks(), true, false);
         });
     }
 }
@@ -0,0 +1,119 @@
+package org.example.smarttasks;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Embedded;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * Full-text search over {@link TaskFts}. Matching runs in two steps: every hit is ranked from
+ * its matchinfo statistics (read from the index alone), then only the best
+ * {@link #MAX_RESULTS} rows are loaded with their snippets.
+ */
+public final class TaskSearch {
+    public static final int MAX_RESULTS = 100;
+    // Wrap matched terms in snippets; private-use characters cannot clash with task text
+    public static final String HIGHLIGHT_START = "\uE000";
+    public static final String HIGHLIGHT_END = "\uE001";
+    static final String ELLIPSIS = "\u2026";
+    static final int SNIPPET_TOKENS = 12;
+    // A hit in the title counts this much more than one in the description
+    static final double TITLE_WEIGHT = 3.0;
+    static final double DESCRIPTION_WEIGHT = 1.0;
+
+    /** Rowid and {@code matchinfo(tasks_fts, 'pcx')} of one hit. */
+    public static class Match {
+        public int id;
+        public byte[] matchInfo;
+
+        public Match(int id, byte[] matchInfo) {
+            this.id = id;
+            this.matchInfo = matchInfo;
+        }
+    }
+
+    /** A matching task with a highlighted excerpt of the matching column. */
+    public static class Result {
+        @Embedded
+        public Task task;
+        @ColumnInfo(name = "snippet")
+        public String snippet;
+    }
+
+    private TaskSearch() {
+    }
+
+    /**
+     * Turns user input into an FTS MATCH expression: every word becomes a prefix term and all
+     * of them must match. Punctuation is dropped and words are lower-cased, so input can never
+     * form FTS operators or syntax errors. Returns null when there is nothing to search for.
+     */
+    public static String toMatchQuery(String input) {
+        if (input == null) return null;
+        StringBuilder match = new StringBuilder();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= input.length(); i++) {
+            char c = i < input.length() ? input.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (term.length() > 0) {
+                if (match.length() > 0) match.append(' ');
+                match.append(term.toString().toLowerCase(Locale.ROOT)).append('*');
+                term.setLength(0);
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * Relevance from a 'pcx' matchinfo blob: for each term and column, the row's hits divided by
+     * the hits across all rows, weighted by column. Rare terms and title hits rank higher.
+     */
+    static double rank(byte[] matchInfo) {
+        ByteBuffer info = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phrases = info.getInt(0);
+        int columns = info.getInt(4);
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns; c++) {
+                int base = 8 + 12 * (p * columns + c);
+                int rowHits = info.getInt(base);
+                int allHits = info.getInt(base + 4);
+                if (rowHits > 0) {
+                    double weight = c == 0 ? TITLE_WEIGHT : DESCRIPTION_WEIGHT;
+                    score += weight * rowHits / allHits;
+                }
+            }
+        }
+        return score;
+    }
+
+    /** Ids of the {@code limit} best matches, best first; ties keep the lower id. O(n log limit). */
+    static List<Integer> topIds(List<Match> matches, int limit) {
+        if (limit <= 0 || matches.isEmpty()) return Collections.emptyList();
+        double[] scores = new double[matches.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = rank(matches.get(i).matchInfo);
+        }
+        // Min-heap of the best seen so far: the worst of them is at the head
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Double.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore : Integer.compare(matches.get(b).id, matches.get(a).id);
+        });
+        for (int i = 0; i < scores.length; i++) {
+            best.add(i);
+            if (best.size() > limit) best.poll();
+        }
+        List<Integer> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add(matches.get(best.poll()).id);
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.smarttasks;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.CheckBox;
+import android.widget.ImageButton;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.Objects;
+
+/** Search hits in relevance order; the snippet of the matching column replaces the description. */
+public class TaskSearchAdapter extends ListAdapter<TaskSearch.Result, TaskSearchAdapter.ResultViewHolder> {
+    private final TaskAdapter.OnTaskClickListener listener;
+
+    private static final DiffUtil.ItemCallback<TaskSearch.Result> DIFF_CALLBACK = new DiffUtil.ItemCallback<TaskSearch.Result>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TaskSearch.Result oldItem, @NonNull TaskSearch.Result newItem) {
+            return oldItem.task.getId() == newItem.task.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TaskSearch.Result oldItem, @NonNull TaskSearch.Result newItem) {
+            return TaskAdapter.DIFF_CALLBACK.areContentsTheSame(oldItem.task, newItem.task)
+                    && Objects.equals(oldItem.snippet, newItem.snippet);
+        }
+    };
+
+    public TaskSearchAdapter(TaskAdapter.OnTaskClickListener listener) {
+        super(DIFF_CALLBACK);
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public ResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_task, parent, false);
+        return new ResultViewHolder(itemView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ResultViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    /** Bolds the terms FTS wrapped in {@link TaskSearch#HIGHLIGHT_START}/{@link TaskSearch#HIGHLIGHT_END}. */
+    static CharSequence highlight(String snippet) {
+        SpannableStringBuilder text = new SpannableStringBuilder();
+        if (snippet == null) return text;
+        int from = 0;
+        while (true) {
+            int start = snippet.indexOf(TaskSearch.HIGHLIGHT_START, from);
+            int end = start < 0 ? -1 : snippet.indexOf(TaskSearch.HIGHLIGHT_END, start);
+            if (end < 0) {
+                text.append(snippet.substring(from));
+                return text;
+            }
+            text.append(snippet, from, start);
+            int spanStart = text.length();
+            text.append(snippet, start + TaskSearch.HIGHLIGHT_START.length(), end);
+            text.setSpan(new StyleSpan(Typeface.BOLD), spanStart, text.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            from = end + TaskSearch.HIGHLIGHT_END.length();
+        }
+    }
+
+    class ResultViewHolder extends RecyclerView.ViewHolder {
+        private TextView taskTitle;
+        private TextView taskDescription;
+        private TextView taskPriority;
+        private TextView taskDueDate;
+
+        public ResultViewHolder(@NonNull View itemView) {
+            super(itemView);
+            taskTitle = itemView.findViewById(R.id.taskTitle);
+            taskDescription = itemView.findViewById(R.id.taskDescription);
+            taskPriority = itemView.findViewById(R.id.taskPriority);
+            taskDueDate = itemView.findViewById(R.id.taskDueDate);
+            // Results only open the task; completing and deleting stay in the list
+            CheckBox taskCheckbox = itemView.findViewById(R.id.taskCheckbox);
+            ImageButton deleteButton = itemView.findViewById(R.id.deleteButton);
+            taskCheckbox.setVisibility(View.GONE);
+            deleteButton.setVisibility(View.GONE);
+
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onTaskClick(getItem(position).task);
+                }
+            });
+        }
+
+        void bind(TaskSearch.Result result) {
+            taskTitle.setText(result.task.getTitle());
+            taskDescription.setText(highlight(result.snippet));
+            taskPriority.setText(result.task.getPriority().name());
+            taskDueDate.setText(result.task.getStatus() == Task.Status.COMPLETED ? "Completed" : null);
+        }
+    }
+}
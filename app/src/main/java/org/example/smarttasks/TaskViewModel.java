@@ -4,16 +4,128 @@ import android.app.Application;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+import androidx.lifecycle.Transformations;
+import androidx.paging.PagedList;
+import org.example.smarttasks.api.HfClient;
+import org.example.smarttasks.api.HfScoreCache;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
+/**
+ * Owns the task list pipeline: the current {@link TaskQuery} is the only input the screen changes,
+ * and both the paged list and cloud scoring are switched over it, so changing the filter swaps
+ * the underlying query instead of adding subscriptions. Cloud scores are persisted and reach the
+ * list through the same query. Nothing here walks the task list on the main thread: ranking
+ * happens in the repository's index, and the cloud-scoring scan runs on a background stage
+ * that only ever processes the newest emission of a bounded query for unscored tasks.
+ */
 public class TaskViewModel extends AndroidViewModel {
     private TaskRepository repository;
-    private LiveData<List<Task>> allTasks;
+    private final MutableLiveData<TaskQuery> query = new MutableLiveData<>(TaskQuery.withStatus(Task.Status.PENDING));
+    private LiveData<List<Task>> unscoredTasks;
+    private LiveData<PagedList<Task>> pagedTasks;
+    private final MutableLiveData<String> searchText = new MutableLiveData<>("");
+    private final LiveData<List<TaskSearch.Result>> searchResults;
+    private final HfScoreCache hfScoreCache;
+    // Texts sent for cloud scoring, so repeated emissions do not request them again
+    private final Set<String> requestedTexts = ConcurrentHashMap.newKeySet();
+    private final ExecutorService scanExecutor = Executors.newSingleThreadExecutor();
+    private final LatestOnlyStage<List<Task>> cloudScan =
+            new LatestOnlyStage<>("viewmodel.cloudScan", scanExecutor, this::scoreUnscored);
+    private final Observer<List<Task>> cloudScoring = cloudScan::submit;
 
     public TaskViewModel(@NonNull Application application) {
         super(application);
         repository = new TaskRepository(application);
-        allTasks = repository.getAllTasks();
+        LiveData<TaskQuery> distinctQuery = Transformations.distinctUntilChanged(query);
+        unscoredTasks = Transformations.switchMap(distinctQuery, repository::getUnscoredTasks);
+        pagedTasks = Transformations.switchMap(distinctQuery, repository::getPagedTasks);
+        searchResults = Transformations.switchMap(Transformations.distinctUntilChanged(searchText), repository::search);
+        hfScoreCache = HfScoreCache.getInstance(application);
+        if (BuildConfig.HF_ENABLED) {
+            // Single subscription for the lifetime of the ViewModel
+            unscoredTasks.observeForever(cloudScoring);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        unscoredTasks.removeObserver(cloudScoring);
+        scanExecutor.shutdown();
+        repository.close();
+    }
+
+    /**
+     * Scan thread: requests Hugging Face importance/urgency for matching tasks that have none yet;
+     * the query already returns only those, but a task may have been scored since.
+     * Results are persisted, which re-ranks the paged list. Gives up without requesting anything
+     * once a newer emission is waiting, since that one holds the same tasks.
+     */
+    private void scoreUnscored(List<Task> tasks, BooleanSupplier superseded) {
+        final List<Task> scored = new ArrayList<>();
+        final List<String> texts = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if ((i & 255) == 0 && superseded.getAsBoolean()) return;
+            Task t = tasks.get(i);
+            if (t.getCloudImportance() != null && t.getCloudUrgency() != null) continue;
+            String text = t.getTitle() + ": " + t.getDescription();
+            if (!requestedTexts.contains(text)) {
+                scored.add(t);
+                texts.add(text);
+            }
+        }
+        // Mark them requested only now, so an abandoned scan leaves nothing half-requested
+        for (int i = texts.size() - 1; i >= 0; i--) {
+            if (!requestedTexts.add(texts.get(i))) {
+                scored.remove(i);
+                texts.remove(i);
+            }
+        }
+        if (scored.isEmpty()) return;
+
+        hfScoreCache.scoreBatch(texts, new HfClient.BatchCallback() {
+            @Override
+            public void onBatchScores(int[] indices, List<HfClient.Scores> scores) {
+                long now = System.currentTimeMillis();
+                List<Task> changed = new ArrayList<>();
+                for (int i = 0; i < scores.size(); i++) {
+                    HfClient.Scores s = scores.get(i);
+                    Task t = scored.get(indices[i]);
+                    if (s.importanceHighProb != null && s.urgencyHighProb != null) {
+                        t.setCloudImportance(s.importanceHighProb);
+                        t.setCloudUrgency(s.urgencyHighProb);
+                        t.setScoredAt(now);
+                        changed.add(t);
+                    } else {
+                        requestedTexts.remove(texts.get(indices[i]));
+                    }
+                }
+                // One write transaction per batch
+                if (!changed.isEmpty()) {
+                    updateCloudScores(changed);
+                }
+            }
+
+            @Override
+            public void onBatchError(int[] indices, String message) {
+                // Keep the local ranking; the next emission may retry these
+                for (int index : indices) {
+                    requestedTexts.remove(texts.get(index));
+                }
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
     }
 
     public void insert(Task task) {
@@ -28,16 +140,59 @@ public class TaskViewModel extends AndroidViewModel {
         repository.delete(task);
     }
 
-    public LiveData<List<Task>> getAllTasks() {
-        return allTasks;
+    /** Saves {@code change} applied to a copy of the stored task; other fields are kept. */
+    public void edit(int id, Consumer<Task> change) {
+        repository.edit(id, change);
+    }
+
+    /** Ranked, paged tasks matching the current query. */
+    public LiveData<PagedList<Task>> getPagedTasks() {
+        return pagedTasks;
+    }
+
+    public TaskQuery getQuery() {
+        return query.getValue();
+    }
+
+    public void setQuery(TaskQuery taskQuery) {
+        query.setValue(taskQuery);
+    }
+
+    /** @param status Status to show, or null for all tasks; other criteria are kept */
+    public void setStatusFilter(Task.Status status) {
+        setQuery(getQuery().buildUpon().setStatus(status).build());
+    }
+
+    /** Results for the current search text; a superseded search never reaches observers. */
+    public LiveData<List<TaskSearch.Result>> getSearchResults() {
+        return searchResults;
+    }
+
+    /** Callers debounce typing; each distinct text runs one search. */
+    public void setSearchText(String text) {
+        searchText.setValue(text != null ? text.trim() : "");
+    }
+
+    public boolean isSearching() {
+        String text = searchText.getValue();
+        return text != null && !text.isEmpty();
+    }
+
+    /** Re-ranks tasks whose due date moved them into a new bucket while the app was away. */
+    public void refreshDueDates() {
+        repository.refreshDueDates();
+    }
+
+    public void updateCloudScores(List<Task> tasks) {
+        repository.updateCloudScores(tasks);
     }
 
     public LiveData<Task> getTaskById(int id) {
         return repository.getTaskById(id);
     }
 
-    public void syncTasks(List<Task> localTasks) {
-        repository.syncTasks(localTasks);
+    public void syncTasks() {
+        repository.syncTasks();
     }
 
     public boolean isOnline() {
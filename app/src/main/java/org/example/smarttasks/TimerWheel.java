@@ -0,0 +1,182 @@
+package org.example.smarttasks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical timer wheel of int keys. Level k has 64 slots of 64^k ticks each; an entry sits
+ * in the lowest level that covers its deadline and moves down a level each time the wheel
+ * reaches its slot, so scheduling and cancelling are O(1) and advancing costs O(expired) plus
+ * one step per 64 ticks while nothing is due. Entries never fire before their deadline; they
+ * may fire up to one tick late. Not thread-safe.
+ */
+final class TimerWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+    // Deadlines further out are parked at the edge and re-filed when they get there
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private static final class Entry {
+        final int key;
+        final long deadlineTick;
+        Entry prev;
+        Entry next;
+        int level;
+        int slot;
+
+        Entry(int key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long tickMs;
+    private final Entry[][] wheel = new Entry[LEVELS][SLOTS];
+    private final int[] levelCounts = new int[LEVELS];
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    // Last tick processed; everything due at or before it has fired
+    private long currentTick;
+
+    TimerWheel(long tickMs, long nowMs) {
+        this.tickMs = tickMs;
+        this.currentTick = Math.floorDiv(nowMs, tickMs);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /** Schedules {@code key} for {@code deadlineMs}, replacing any earlier schedule for it. */
+    void schedule(int key, long deadlineMs) {
+        cancel(key);
+        // Round up so the entry never fires early
+        Entry entry = new Entry(key, -Math.floorDiv(-deadlineMs, tickMs));
+        entries.put(key, entry);
+        // A deadline that has passed fires on the next tick
+        file(entry, 1);
+    }
+
+    void cancel(int key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) unlink(entry);
+    }
+
+    void clear() {
+        entries.clear();
+        for (int level = 0; level < LEVELS; level++) {
+            Arrays.fill(wheel[level], null);
+            levelCounts[level] = 0;
+        }
+    }
+
+    /**
+     * Fires, in no particular order, every key due at or before {@code nowMs}. {@code expired}
+     * must not schedule or cancel keys.
+     */
+    void advance(long nowMs, IntConsumer expired) {
+        long target = Math.floorDiv(nowMs, tickMs);
+        while (currentTick < target) {
+            if (entries.isEmpty()) {
+                currentTick = target;
+                break;
+            }
+            if (levelCounts[0] == 0) {
+                // Nothing in level 0: jump to the next tick where a higher level cascades
+                long boundary = (currentTick | SLOT_MASK) + 1;
+                if (boundary > target) {
+                    currentTick = target;
+                    break;
+                }
+                currentTick = boundary - 1;
+            }
+            currentTick++;
+            if ((currentTick & SLOT_MASK) == 0) {
+                cascade(1);
+            }
+            Entry entry = wheel[0][(int) (currentTick & SLOT_MASK)];
+            while (entry != null) {
+                Entry next = entry.next;
+                unlink(entry);
+                if (entry.deadlineTick > currentTick) {
+                    file(entry, 1); // Parked past MAX_DELTA
+                } else {
+                    entries.remove(entry.key);
+                    expired.accept(entry.key);
+                }
+                entry = next;
+            }
+        }
+    }
+
+    /**
+     * A time (ms) at or before the next deadline, when {@link #advance} should next be called,
+     * or {@link Long#MAX_VALUE} if nothing is scheduled. For higher levels this is when their
+     * slot cascades, which may come before the deadlines in it.
+     */
+    long nextWakeupMs() {
+        long best = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            if (levelCounts[level] == 0) continue;
+            int shift = SLOT_BITS * level;
+            long base = currentTick >> shift;
+            for (int i = 1; i <= SLOTS; i++) {
+                if (wheel[level][(int) ((base + i) & SLOT_MASK)] != null) {
+                    best = Math.min(best, (base + i) << shift);
+                    break;
+                }
+            }
+        }
+        return best == Long.MAX_VALUE ? best : best * tickMs;
+    }
+
+    /** Moves the entries of the level slot the wheel just reached down to lower levels. */
+    private void cascade(int level) {
+        if (level >= LEVELS) return;
+        int shift = SLOT_BITS * level;
+        int slot = (int) ((currentTick >> shift) & SLOT_MASK);
+        if (slot == 0) {
+            cascade(level + 1);
+        }
+        Entry entry = wheel[level][slot];
+        while (entry != null) {
+            Entry next = entry.next;
+            unlink(entry);
+            // Entries due on this very tick land in the level-0 slot that is expired next
+            file(entry, 0);
+            entry = next;
+        }
+    }
+
+    private void file(Entry entry, long minDelta) {
+        long delta = Math.min(Math.max(entry.deadlineTick - currentTick, minDelta), MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK);
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = wheel[level][slot];
+        if (entry.next != null) entry.next.prev = entry;
+        wheel[level][slot] = entry;
+        levelCounts[level]++;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            wheel[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+        levelCounts[entry.level]--;
+    }
+}
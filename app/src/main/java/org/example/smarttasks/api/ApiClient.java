@@ -1,34 +1,31 @@
 package org.example.smarttasks.api;
 
-import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
-import java.util.concurrent.TimeUnit;
 import org.example.smarttasks.BuildConfig;
 
 public class ApiClient {
     private static ApiClient instance;
     private TaskApiService apiService;
+    private SyncApiService syncService;
 
     private ApiClient() {
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
-
+        // Timeouts, logging and compression per endpoint live in HttpTransport
         Retrofit retrofit = new Retrofit.Builder()
                 .baseUrl(BuildConfig.HF_BASE_URL)
-                .client(okHttpClient)
+                .client(HttpTransport.hfClient())
                 .addConverterFactory(GsonConverterFactory.create())
                 .build();
 
         apiService = retrofit.create(TaskApiService.class);
+
+        if (BuildConfig.SYNC_ENABLED) {
+            syncService = retrofit.newBuilder()
+                    .baseUrl(BuildConfig.SYNC_BASE_URL)
+                    .client(HttpTransport.syncClient())
+                    .build()
+                    .create(SyncApiService.class);
+        }
     }
 
     public static synchronized ApiClient getInstance() {
@@ -41,4 +38,9 @@ public class ApiClient {
     public TaskApiService getApiService() {
         return apiService;
     }
+
+    /** Null unless a sync backend is configured (SYNC_BASE_URL in local.properties). */
+    public SyncApiService getSyncService() {
+        return syncService;
+    }
 }
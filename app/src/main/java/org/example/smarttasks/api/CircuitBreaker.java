@@ -0,0 +1,70 @@
+package org.example.smarttasks.api;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calls to an unhealthy endpoint. After {@code failureThreshold} consecutive failures the
+ * breaker opens and rejects calls for {@code openMs}; then a single probe is let through, and
+ * its outcome closes the breaker or opens it again.
+ */
+final class CircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final LongSupplier clockMs;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int failureThreshold, long openMs, LongSupplier clockMs) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.clockMs = clockMs;
+    }
+
+    /** Whether a call may go out now. In half-open state only the first caller gets through. */
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN && clockMs.getAsLong() >= openUntil) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probeInFlight) return false;
+                probeInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        probeInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            openFor(openMs);
+        }
+    }
+
+    /** Opens for at least {@code ms}, e.g. when the server asked for a long pause. */
+    synchronized void openFor(long ms) {
+        state = State.OPEN;
+        probeInFlight = false;
+        openUntil = Math.max(openUntil, clockMs.getAsLong() + ms);
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
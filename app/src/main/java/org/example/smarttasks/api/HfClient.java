@@ -1,14 +1,32 @@
 package org.example.smarttasks.api;
 
+import android.os.Handler;
+import android.os.Looper;
 import org.example.smarttasks.BuildConfig;
+import org.example.smarttasks.metrics.Counter;
+import org.example.smarttasks.metrics.Histogram;
+import org.example.smarttasks.metrics.Metrics;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
-/** Lightweight client to get importance/urgency predictions from Hugging Face. */
+/**
+ * Lightweight client to get importance/urgency predictions from Hugging Face. Requests are
+ * paced by a token bucket, transient failures (429, 503 while the model loads) are retried with
+ * backoff, and a circuit breaker fails calls fast while the endpoint is unhealthy; callers then
+ * keep the local {@code TaskOrganizerAI} score.
+ */
 public class HfClient {
 
     public interface ScoreCallback {
@@ -16,71 +34,290 @@ public class HfClient {
         void onError(String message);
     }
 
+    /** Receives the results of {@link #scoreBatch}, once per request rather than once per text. */
+    public interface BatchCallback {
+        /** {@code scores.get(i)} belongs to {@code texts[indices[i]]}. */
+        void onBatchScores(int[] indices, List<Scores> scores);
+        void onBatchError(int[] indices, String message);
+        /** Every batch of the call has been delivered. */
+        void onComplete();
+    }
+
+    /** HIGH-label probabilities for one input; either value may be null if missing. */
+    public static class Scores {
+        public final Double importanceHighProb;
+        public final Double urgencyHighProb;
+
+        public Scores(Double importanceHighProb, Double urgencyHighProb) {
+            this.importanceHighProb = importanceHighProb;
+            this.urgencyHighProb = urgencyHighProb;
+        }
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 16;
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 2;
+    /** Error reported while the circuit breaker is open. */
+    public static final String UNAVAILABLE = "HF unavailable";
+
+    // Free inference tier: short bursts, then about one request per second
+    static final double REQUESTS_PER_SECOND = 1.0;
+    static final int REQUEST_BURST = 4;
+    static final int MAX_ATTEMPTS = 3;
+    static final long RETRY_BASE_DELAY_MS = 1000;
+    static final long RETRY_MAX_DELAY_MS = 30_000;
+    // Sustained retries stay under 10% of successful requests
+    static final double RETRY_BUDGET_PER_SUCCESS = 0.1;
+    static final int RETRY_BUDGET = 10;
+    static final int BREAKER_FAILURE_THRESHOLD = 5;
+    static final long BREAKER_OPEN_MS = 60_000;
+
+    // Per HTTP attempt; errors and rejections count batches
+    private static final Histogram REQUEST_TIME = Metrics.get().timer("hf.request.time");
+    private static final Counter REQUESTS = Metrics.get().counter("hf.requests");
+    private static final Counter RETRIES = Metrics.get().counter("hf.retries");
+    private static final Counter ERRORS = Metrics.get().counter("hf.errors");
+    private static final Counter REJECTED = Metrics.get().counter("hf.rejected");
+    private static final Histogram RATE_LIMIT_WAIT = Metrics.get().histogram("hf.rateLimit.waitMs");
+
     private final TaskApiService service;
+    private final int batchSize;
+    private final int maxConcurrentRequests;
+    private final boolean enabled;
+    private final RateLimiter limiter;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker breaker;
+    // Delays only; the delayed work runs on callbackExecutor like Retrofit's callbacks
+    private final ScheduledExecutorService timer;
+    private final Executor callbackExecutor;
+
+    // Batches waiting for a request slot, shared by all scoreBatch calls
+    private final ArrayDeque<Batch> pending = new ArrayDeque<>();
+    private int inFlight;
 
     public HfClient() {
-        this.service = ApiClient.getInstance().getApiService();
+        this(DEFAULT_BATCH_SIZE, DEFAULT_MAX_CONCURRENT_REQUESTS);
+    }
+
+    public HfClient(int batchSize, int maxConcurrentRequests) {
+        this(ApiClient.getInstance().getApiService(), batchSize, maxConcurrentRequests);
+    }
+
+    HfClient(TaskApiService service, int batchSize, int maxConcurrentRequests) {
+        this(service, batchSize, maxConcurrentRequests, BuildConfig.HF_ENABLED,
+                new RateLimiter(REQUESTS_PER_SECOND, REQUEST_BURST, System::nanoTime),
+                new RetryPolicy(MAX_ATTEMPTS, RETRY_BASE_DELAY_MS, RETRY_MAX_DELAY_MS,
+                        RETRY_BUDGET_PER_SUCCESS, RETRY_BUDGET, new Random()),
+                new CircuitBreaker(BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_MS, System::currentTimeMillis),
+                new Handler(Looper.getMainLooper())::post);
+    }
+
+    HfClient(TaskApiService service, int batchSize, int maxConcurrentRequests, boolean enabled,
+             RateLimiter limiter, RetryPolicy retryPolicy, CircuitBreaker breaker, Executor callbackExecutor) {
+        if (batchSize < 1 || maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("batchSize and maxConcurrentRequests must be positive");
+        }
+        this.service = service;
+        this.batchSize = batchSize;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.enabled = enabled;
+        this.limiter = limiter;
+        this.retryPolicy = retryPolicy;
+        this.breaker = breaker;
+        this.callbackExecutor = callbackExecutor;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "HfClient-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Whether calls are currently failing fast. */
+    public boolean isUnavailable() {
+        return breaker.getState() == CircuitBreaker.State.OPEN;
     }
 
     /**
      * Calls zero-shot classification with candidate labels and returns HIGH probabilities.
      */
     public void scoreImportanceAndUrgency(String text, ScoreCallback cb) {
-        if (!BuildConfig.HF_ENABLED) {
-            cb.onError("HF disabled");
+        scoreBatch(Collections.singletonList(text), new BatchCallback() {
+            @Override
+            public void onBatchScores(int[] indices, List<Scores> scores) {
+                cb.onScores(scores.get(0).importanceHighProb, scores.get(0).urgencyHighProb);
+            }
+
+            @Override
+            public void onBatchError(int[] indices, String message) {
+                cb.onError(message);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    /**
+     * Scores many texts with one request per {@code batchSize} inputs, at most
+     * {@code maxConcurrentRequests} requests at a time. Importance and urgency both come
+     * from the same response (the previous client sent the identical request twice).
+     */
+    public void scoreBatch(List<String> texts, BatchCallback cb) {
+        if (!enabled) {
+            cb.onBatchError(range(0, texts.size()), "HF disabled");
+            cb.onComplete();
+            return;
+        }
+        if (texts.isEmpty()) {
+            cb.onComplete();
             return;
         }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("inputs", text);
-        Map<String, Object> params = new HashMap<>();
-        params.put("candidate_labels", new String[]{"HIGH", "MEDIUM", "LOW"});
-        body.put("parameters", params);
+        BatchRun run = new BatchRun(cb, (texts.size() + batchSize - 1) / batchSize);
+        synchronized (this) {
+            for (int offset = 0; offset < texts.size(); offset += batchSize) {
+                int end = Math.min(offset + batchSize, texts.size());
+                pending.add(new Batch(run, offset, new ArrayList<>(texts.subList(offset, end))));
+            }
+        }
+        drain();
+    }
 
-        // Importance request
-        Call<List<List<Map<String, Object>>>> callImp = service.zeroShot(
-                "Bearer " + BuildConfig.HF_API_TOKEN,
-                BuildConfig.HF_MODEL_PATH,
-                body
-        );
+    private void drain() {
+        while (true) {
+            Batch batch;
+            synchronized (this) {
+                if (inFlight >= maxConcurrentRequests || pending.isEmpty()) return;
+                batch = pending.poll();
+                inFlight++;
+            }
+            send(batch);
+        }
+    }
+
+    private void send(Batch batch) {
+        if (!breaker.allowRequest()) {
+            REJECTED.inc();
+            finish(batch, null, UNAVAILABLE);
+            return;
+        }
+        long waitMs = limiter.reserve();
+        RATE_LIMIT_WAIT.record(waitMs);
+        if (waitMs > 0) {
+            later(() -> enqueue(batch), waitMs);
+        } else {
+            enqueue(batch);
+        }
+    }
 
-        callImp.enqueue(new Callback<List<List<Map<String, Object>>>>() {
+    private void enqueue(Batch batch) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("inputs", batch.texts);
+        body.put("parameters", labelParameters());
+
+        REQUESTS.inc();
+        long start = System.nanoTime();
+        zeroShot(body).enqueue(new Callback<List<List<Map<String, Object>>>>() {
             @Override
             public void onResponse(Call<List<List<Map<String, Object>>>> call, Response<List<List<Map<String, Object>>>> response) {
-                Double impHigh = extractHigh(response.body());
-
-                // Urgency: reuse same request; in a real setup we may use a different prompt or labels
-                Call<List<List<Map<String, Object>>>> callUrg = service.zeroShot(
-                        "Bearer " + BuildConfig.HF_API_TOKEN,
-                        BuildConfig.HF_MODEL_PATH,
-                        body
-                );
-
-                callUrg.enqueue(new Callback<List<List<Map<String, Object>>>>() {
-                    @Override
-                    public void onResponse(Call<List<List<Map<String, Object>>>> call2, Response<List<List<Map<String, Object>>>> resp2) {
-                        Double urgHigh = extractHigh(resp2.body());
-                        cb.onScores(impHigh, urgHigh);
-                    }
-
-                    @Override
-                    public void onFailure(Call<List<List<Map<String, Object>>>> call2, Throwable t2) {
-                        cb.onError(t2.getMessage());
+                REQUEST_TIME.recordSince(start);
+                if (response.isSuccessful()) {
+                    breaker.onSuccess();
+                    retryPolicy.onSuccess();
+                    List<List<Map<String, Object>>> results = response.body();
+                    List<Scores> scores = new ArrayList<>(batch.texts.size());
+                    for (int i = 0; i < batch.texts.size(); i++) {
+                        Double high = extractHigh(results, i);
+                        scores.add(new Scores(high, high));
                     }
-                });
+                    finish(batch, scores, null);
+                    return;
+                }
+                int code = response.code();
+                boolean retryable = RetryPolicy.isRetryable(code);
+                if (retryable || code >= 500) {
+                    breaker.onFailure();
+                }
+                long retryAfterMs = RetryPolicy.parseRetryAfter(response.headers().get("Retry-After"),
+                        System.currentTimeMillis());
+                retryOrFinish(batch, "HTTP " + code, retryable, retryAfterMs);
             }
 
             @Override
             public void onFailure(Call<List<List<Map<String, Object>>>> call, Throwable t) {
-                cb.onError(t.getMessage());
+                REQUEST_TIME.recordSince(start);
+                if (call.isCanceled()) {
+                    finish(batch, null, t.getMessage());
+                    return;
+                }
+                breaker.onFailure();
+                retryOrFinish(batch, t.getMessage(), true, -1);
             }
         });
     }
 
-    private Double extractHigh(List<List<Map<String, Object>>> body) {
+    private void retryOrFinish(Batch batch, String error, boolean retryable, long retryAfterMs) {
+        if (retryable && retryAfterMs > retryPolicy.maxDelayMs()) {
+            // Asked to stay away for long: stop all calls for that time rather than hold this one
+            breaker.openFor(retryAfterMs);
+            retryable = false;
+        }
+        if (retryable && batch.attempts < retryPolicy.maxAttempts() && retryPolicy.tryAcquireRetry()) {
+            long delayMs = retryPolicy.delayMs(batch.attempts, retryAfterMs);
+            batch.attempts++;
+            RETRIES.inc();
+            // The batch keeps its request slot while it waits
+            later(() -> send(batch), delayMs);
+            return;
+        }
+        finish(batch, null, error);
+    }
+
+    private void later(Runnable task, long delayMs) {
+        timer.schedule(() -> callbackExecutor.execute(task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void finish(Batch batch, List<Scores> scores, String error) {
+        synchronized (this) {
+            inFlight--;
+        }
+        int[] indices = range(batch.offset, batch.texts.size());
+        if (scores != null) {
+            batch.run.callback.onBatchScores(indices, Collections.unmodifiableList(scores));
+        } else {
+            ERRORS.inc();
+            batch.run.callback.onBatchError(indices, error);
+        }
+        if (batch.run.batchDone()) {
+            batch.run.callback.onComplete();
+        }
+        drain();
+    }
+
+    private Call<List<List<Map<String, Object>>>> zeroShot(Map<String, Object> body) {
+        return service.zeroShot(
+                "Bearer " + BuildConfig.HF_API_TOKEN,
+                BuildConfig.HF_MODEL_PATH,
+                body
+        );
+    }
+
+    private static int[] range(int from, int count) {
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) indices[i] = from + i;
+        return indices;
+    }
+
+    private static Map<String, Object> labelParameters() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("candidate_labels", new String[]{"HIGH", "MEDIUM", "LOW"});
+        return params;
+    }
+
+    private Double extractHigh(List<List<Map<String, Object>>> body, int index) {
         try {
-            if (body == null || body.isEmpty()) return null;
-            List<Map<String, Object>> results = body.get(0);
+            if (body == null || body.size() <= index) return null;
+            List<Map<String, Object>> results = body.get(index);
             for (Map<String, Object> item : results) {
                 if ("HIGH".equalsIgnoreCase(String.valueOf(item.get("label")))) {
                     Object scoreObj = item.get("score");
@@ -90,6 +327,32 @@ public class HfClient {
         } catch (Exception ignored) {}
         return null;
     }
-}
 
+    /** One scoreBatch call: its callback and how many of its batches are still outstanding. */
+    private static class BatchRun {
+        final BatchCallback callback;
+        private int remaining;
+
+        BatchRun(BatchCallback callback, int batches) {
+            this.callback = callback;
+            this.remaining = batches;
+        }
 
+        synchronized boolean batchDone() {
+            return --remaining == 0;
+        }
+    }
+
+    private static class Batch {
+        final BatchRun run;
+        final int offset;
+        final List<String> texts;
+        int attempts = 1;
+
+        Batch(BatchRun run, int offset, List<String> texts) {
+            this.run = run;
+            this.offset = offset;
+            this.texts = texts;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package org.example.smarttasks.api;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import org.example.smarttasks.BuildConfig;
+import org.example.smarttasks.CachedScore;
+import org.example.smarttasks.CachedScoreDao;
+import org.example.smarttasks.TaskDatabase;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.example.smarttasks.metrics.Counter;
+import org.example.smarttasks.metrics.Metrics;
+
+/**
+ * Content-addressed cache in front of {@link HfClient}. Scores are keyed by a hash of the
+ * model path and the input text, so unchanged tasks are never sent twice. Lookups go
+ * memory LRU -> Room table (with TTL) -> network, and concurrent requests for the same
+ * text share one network call.
+ */
+public class HfScoreCache {
+    public static final int DEFAULT_MEMORY_CAPACITY = 2048;
+    public static final long DEFAULT_TTL_MS = TimeUnit.DAYS.toMillis(7);
+
+    // SQLite allows 999 bind variables per statement
+    private static final int MAX_KEYS_PER_QUERY = 500;
+
+    private static HfScoreCache instance;
+
+    private final HfClient client;
+    private final CachedScoreDao dao;
+    private final long ttlMs;
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final LinkedHashMap<String, CachedScore> memory;
+    // Keys with a network request in flight -> everyone waiting for that key
+    private final Map<String, List<Waiter>> inFlight = new HashMap<>();
+
+    // Registered so they show up in the metrics dump
+    private final Counter memoryHits = Metrics.get().counter("hf.cache.memoryHits");
+    private final Counter diskHits = Metrics.get().counter("hf.cache.diskHits");
+    private final Counter misses = Metrics.get().counter("hf.cache.misses");
+    private final Counter dedupedRequests = Metrics.get().counter("hf.cache.deduped");
+    private final Counter evictions = Metrics.get().counter("hf.cache.evictions");
+
+    public HfScoreCache(HfClient client, CachedScoreDao dao, int memoryCapacity, long ttlMs) {
+        this.client = client;
+        this.dao = dao;
+        this.ttlMs = ttlMs;
+        this.memory = new LinkedHashMap<String, CachedScore>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedScore> eldest) {
+                if (size() > memoryCapacity) {
+                    evictions.inc();
+                    return true;
+                }
+                return false;
+            }
+        };
+        ioExecutor.execute(() -> dao.deleteOlderThan(System.currentTimeMillis() - ttlMs));
+    }
+
+    public static synchronized HfScoreCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new HfScoreCache(new HfClient(),
+                    TaskDatabase.getInstance(context).cachedScoreDao(),
+                    DEFAULT_MEMORY_CAPACITY, DEFAULT_TTL_MS);
+        }
+        return instance;
+    }
+
+    /**
+     * Same contract as {@link HfClient#scoreBatch}: cached scores arrive in one callback,
+     * network results once per request, then {@code onComplete}. Callbacks run on the main thread.
+     */
+    public void scoreBatch(List<String> texts, HfClient.BatchCallback cb) {
+        if (!BuildConfig.HF_ENABLED || texts.isEmpty()) {
+            client.scoreBatch(texts, cb);
+            return;
+        }
+        List<String> input = new ArrayList<>(texts);
+        ioExecutor.execute(() -> lookup(input, cb));
+    }
+
+    private void lookup(List<String> texts, HfClient.BatchCallback cb) {
+        long minStoredAt = System.currentTimeMillis() - ttlMs;
+        int n = texts.size();
+        String[] keys = new String[n];
+        CachedScore[] found = new CachedScore[n];
+
+        // Memory tier
+        List<Integer> memoryMisses = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < n; i++) {
+                keys[i] = keyFor(texts.get(i));
+                CachedScore cached = memory.get(keys[i]);
+                if (cached != null && cached.getStoredAt() >= minStoredAt) {
+                    found[i] = cached;
+                    memoryHits.inc();
+                } else {
+                    memoryMisses.add(i);
+                }
+            }
+        }
+
+        // Persistent tier
+        if (!memoryMisses.isEmpty()) {
+            Map<String, CachedScore> stored = new HashMap<>();
+            for (int from = 0; from < memoryMisses.size(); from += MAX_KEYS_PER_QUERY) {
+                List<String> chunk = new ArrayList<>();
+                for (int i : memoryMisses.subList(from, Math.min(from + MAX_KEYS_PER_QUERY, memoryMisses.size()))) {
+                    chunk.add(keys[i]);
+                }
+                for (CachedScore score : dao.getFresh(chunk, minStoredAt)) {
+                    stored.put(score.getKey(), score);
+                }
+            }
+            synchronized (this) {
+                for (int i : memoryMisses) {
+                    CachedScore cached = stored.get(keys[i]);
+                    if (cached != null) {
+                        found[i] = cached;
+                        memory.put(keys[i], cached);
+                        diskHits.inc();
+                    }
+                }
+            }
+        }
+
+        mainHandler.post(() -> dispatch(texts, keys, found, cb));
+    }
+
+    /** Main thread: deliver hits, then join or start network requests for the rest. */
+    private void dispatch(List<String> texts, String[] keys, CachedScore[] found, HfClient.BatchCallback cb) {
+        List<Integer> hitIndices = new ArrayList<>();
+        List<HfClient.Scores> hitScores = new ArrayList<>();
+        List<Integer> missIndices = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (found[i] != null) {
+                hitIndices.add(i);
+                hitScores.add(new HfClient.Scores(found[i].getImportance(), found[i].getUrgency()));
+            } else {
+                missIndices.add(i);
+            }
+        }
+        if (!hitIndices.isEmpty()) {
+            cb.onBatchScores(toArray(hitIndices), hitScores);
+        }
+        if (missIndices.isEmpty()) {
+            cb.onComplete();
+            return;
+        }
+
+        Run run = new Run(cb, missIndices.size());
+        List<String> toSend = new ArrayList<>();
+        List<String> sentKeys = new ArrayList<>();
+        synchronized (this) {
+            for (int i : missIndices) {
+                misses.inc();
+                List<Waiter> waiters = inFlight.get(keys[i]);
+                if (waiters != null) {
+                    dedupedRequests.inc();
+                } else {
+                    waiters = new ArrayList<>();
+                    inFlight.put(keys[i], waiters);
+                    toSend.add(texts.get(i));
+                    sentKeys.add(keys[i]);
+                }
+                waiters.add(new Waiter(run, i));
+            }
+        }
+        if (toSend.isEmpty()) return;
+
+        client.scoreBatch(toSend, new HfClient.BatchCallback() {
+            @Override
+            public void onBatchScores(int[] indices, List<HfClient.Scores> scores) {
+                long now = System.currentTimeMillis();
+                List<CachedScore> toStore = new ArrayList<>();
+                Map<Run, Delivery> deliveries = new LinkedHashMap<>();
+                synchronized (HfScoreCache.this) {
+                    for (int j = 0; j < indices.length; j++) {
+                        String key = sentKeys.get(indices[j]);
+                        HfClient.Scores s = scores.get(j);
+                        if (s.importanceHighProb != null && s.urgencyHighProb != null) {
+                            CachedScore entry = new CachedScore(key, s.importanceHighProb, s.urgencyHighProb, now);
+                            memory.put(key, entry);
+                            toStore.add(entry);
+                        }
+                        for (Waiter w : removeWaiters(key)) {
+                            delivery(deliveries, w.run).add(w.index, s);
+                        }
+                    }
+                }
+                if (!toStore.isEmpty()) {
+                    ioExecutor.execute(() -> dao.insertAll(toStore));
+                }
+                for (Map.Entry<Run, Delivery> e : deliveries.entrySet()) {
+                    e.getKey().callback.onBatchScores(toArray(e.getValue().indices), e.getValue().scores);
+                    e.getKey().delivered(e.getValue().indices.size());
+                }
+            }
+
+            @Override
+            public void onBatchError(int[] indices, String message) {
+                Map<Run, Delivery> deliveries = new LinkedHashMap<>();
+                synchronized (HfScoreCache.this) {
+                    for (int index : indices) {
+                        for (Waiter w : removeWaiters(sentKeys.get(index))) {
+                            delivery(deliveries, w.run).add(w.index, null);
+                        }
+                    }
+                }
+                for (Map.Entry<Run, Delivery> e : deliveries.entrySet()) {
+                    e.getKey().callback.onBatchError(toArray(e.getValue().indices), message);
+                    e.getKey().delivered(e.getValue().indices.size());
+                }
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    private List<Waiter> removeWaiters(String key) {
+        List<Waiter> waiters = inFlight.remove(key);
+        return waiters != null ? waiters : new ArrayList<>();
+    }
+
+    private static Delivery delivery(Map<Run, Delivery> deliveries, Run run) {
+        Delivery d = deliveries.get(run);
+        if (d == null) {
+            d = new Delivery();
+            deliveries.put(run, d);
+        }
+        return d;
+    }
+
+    /** Clears the memory tier; the persistent tier expires through its TTL. */
+    public synchronized void clearMemory() {
+        memory.clear();
+    }
+
+    public Stats getStats() {
+        int size;
+        synchronized (this) {
+            size = memory.size();
+        }
+        return new Stats(memoryHits.get(), diskHits.get(), misses.get(), dedupedRequests.get(), evictions.get(), size);
+    }
+
+    private static String keyFor(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(BuildConfig.HF_MODEL_PATH.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) result[i] = values.get(i);
+        return result;
+    }
+
+    /** Counters since process start. */
+    public static class Stats {
+        public final long memoryHits;
+        public final long diskHits;
+        public final long misses;
+        public final long dedupedRequests;
+        public final long evictions;
+        public final int memorySize;
+
+        Stats(long memoryHits, long diskHits, long misses, long dedupedRequests, long evictions, int memorySize) {
+            this.memoryHits = memoryHits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.dedupedRequests = dedupedRequests;
+            this.evictions = evictions;
+            this.memorySize = memorySize;
+        }
+
+        public double hitRate() {
+            long lookups = memoryHits + diskHits + misses;
+            return lookups == 0 ? 0 : (double) (memoryHits + diskHits) / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "HfScoreCache{memoryHits=" + memoryHits + ", diskHits=" + diskHits + ", misses=" + misses
+                    + ", deduped=" + dedupedRequests + ", evictions=" + evictions + ", memorySize=" + memorySize + "}";
+        }
+    }
+
+    /** One scoreBatch call waiting for network results. */
+    private static class Run {
+        final HfClient.BatchCallback callback;
+        private int outstanding;
+
+        Run(HfClient.BatchCallback callback, int outstanding) {
+            this.callback = callback;
+            this.outstanding = outstanding;
+        }
+
+        void delivered(int count) {
+            outstanding -= count;
+            if (outstanding == 0) callback.onComplete();
+        }
+    }
+
+    private static class Waiter {
+        final Run run;
+        final int index;
+
+        Waiter(Run run, int index) {
+            this.run = run;
+            this.index = index;
+        }
+    }
+
+    private static class Delivery {
+        final List<Integer> indices = new ArrayList<>();
+        final List<HfClient.Scores> scores = new ArrayList<>();
+
+        void add(int index, HfClient.Scores score) {
+            indices.add(index);
+            scores.add(score);
+        }
+    }
+}
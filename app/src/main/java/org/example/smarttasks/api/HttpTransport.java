@@ -0,0 +1,127 @@
+package org.example.smarttasks.api;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.logging.HttpLoggingInterceptor;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import org.example.smarttasks.BuildConfig;
+
+/**
+ * HTTP transport settings. Every endpoint client is derived from one base client, so they share
+ * a connection pool and dispatcher and differ only in timeouts, logging and compression.
+ * Response gzip needs no setup: OkHttp asks for it and decompresses transparently.
+ */
+final class HttpTransport {
+    // Two hosts (HF and sync); a few idle connections each is enough to skip handshakes
+    static final int MAX_IDLE_CONNECTIONS = 4;
+    static final long KEEP_ALIVE_MINUTES = 5;
+    static final int MAX_REQUESTS = 8;
+    static final int MAX_REQUESTS_PER_HOST = 4;
+
+    // Zero-shot inference can wait on a cold model, but its request bodies are small
+    static final long HF_CONNECT_TIMEOUT_S = 10;
+    static final long HF_READ_TIMEOUT_S = 60;
+    static final long HF_WRITE_TIMEOUT_S = 10;
+    static final long HF_CALL_TIMEOUT_S = 90;
+
+    // Sync streams large bodies; the whole sync is bounded by SyncManager's own timeout
+    static final long SYNC_CONNECT_TIMEOUT_S = 10;
+    static final long SYNC_READ_TIMEOUT_S = 30;
+    static final long SYNC_WRITE_TIMEOUT_S = 60;
+
+    private static OkHttpClient base;
+
+    private HttpTransport() {
+    }
+
+    private static synchronized OkHttpClient base() {
+        if (base == null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(MAX_REQUESTS);
+            dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+            base = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                    .dispatcher(dispatcher)
+                    .build();
+        }
+        return base;
+    }
+
+    /** Client for the Hugging Face inference calls. */
+    static OkHttpClient hfClient() {
+        return base().newBuilder()
+                .addInterceptor(logging(HttpLoggingInterceptor.Level.BODY))
+                .connectTimeout(HF_CONNECT_TIMEOUT_S, TimeUnit.SECONDS)
+                .readTimeout(HF_READ_TIMEOUT_S, TimeUnit.SECONDS)
+                .writeTimeout(HF_WRITE_TIMEOUT_S, TimeUnit.SECONDS)
+                .callTimeout(HF_CALL_TIMEOUT_S, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /** Client for the sync backend; request bodies are gzipped. */
+    static OkHttpClient syncClient() {
+        return base().newBuilder()
+                // Sync payloads are streamed; BODY logging would buffer them whole
+                .addInterceptor(logging(HttpLoggingInterceptor.Level.HEADERS))
+                .addInterceptor(new GzipRequestInterceptor())
+                .connectTimeout(SYNC_CONNECT_TIMEOUT_S, TimeUnit.SECONDS)
+                .readTimeout(SYNC_READ_TIMEOUT_S, TimeUnit.SECONDS)
+                .writeTimeout(SYNC_WRITE_TIMEOUT_S, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /** {@code debugLevel} in debug builds; release builds log nothing. Credentials are never logged. */
+    private static HttpLoggingInterceptor logging(HttpLoggingInterceptor.Level debugLevel) {
+        HttpLoggingInterceptor interceptor = new HttpLoggingInterceptor();
+        interceptor.setLevel(BuildConfig.DEBUG ? debugLevel : HttpLoggingInterceptor.Level.NONE);
+        interceptor.redactHeader("Authorization");
+        return interceptor;
+    }
+
+    /** Gzips request bodies while they stream out; the length becomes unknown, so they go chunked. */
+    static class GzipRequestInterceptor implements Interceptor {
+        @Override
+        public okhttp3.Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            RequestBody body = request.body();
+            if (body == null || request.header("Content-Encoding") != null) {
+                return chain.proceed(request);
+            }
+            Request compressed = request.newBuilder()
+                    .header("Content-Encoding", "gzip")
+                    .method(request.method(), gzip(body))
+                    .build();
+            return chain.proceed(compressed);
+        }
+
+        private static RequestBody gzip(RequestBody body) {
+            return new RequestBody() {
+                @Override
+                public MediaType contentType() {
+                    return body.contentType();
+                }
+
+                @Override
+                public long contentLength() {
+                    return -1;
+                }
+
+                @Override
+                public void writeTo(BufferedSink sink) throws IOException {
+                    BufferedSink gzipSink = Okio.buffer(new GzipSink(sink));
+                    body.writeTo(gzipSink);
+                    gzipSink.close();
+                }
+            };
+        }
+    }
+}
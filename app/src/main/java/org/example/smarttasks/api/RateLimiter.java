@@ -0,0 +1,38 @@
+package org.example.smarttasks.api;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket: up to {@code burst} requests go out at once, then {@code permitsPerSecond}.
+ * Callers reserve a permit and wait out the returned delay, so a burst is spread out instead
+ * of rejected.
+ */
+final class RateLimiter {
+    private final double permitsPerNano;
+    private final double burst;
+    private final LongSupplier nanoClock;
+    // Negative while reservations are queued ahead of the refill
+    private double tokens;
+    private long refilledAt;
+
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /** Takes one permit and returns how many milliseconds to wait before using it (0 = now). */
+    synchronized long reserve() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        tokens -= 1;
+        if (tokens >= 0) return 0;
+        return (long) Math.ceil(-tokens / permitsPerNano / 1_000_000d);
+    }
+}
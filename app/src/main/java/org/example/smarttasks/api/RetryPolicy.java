@@ -0,0 +1,86 @@
+package org.example.smarttasks.api;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Retries for transient failures: exponential backoff with full jitter, at least as long as
+ * the server's {@code Retry-After}, capped per call by {@code maxAttempts} and overall by a
+ * retry budget. The budget is spent by retries and refilled by successes, so a failing endpoint
+ * cannot multiply the traffic it receives.
+ */
+final class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final double budgetPerSuccess;
+    private final double maxBudget;
+    private final Random random;
+    private double budget;
+
+    RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs, double budgetPerSuccess, int maxBudget, Random random) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.budgetPerSuccess = budgetPerSuccess;
+        this.maxBudget = maxBudget;
+        this.random = random;
+        this.budget = maxBudget;
+    }
+
+    int maxAttempts() {
+        return maxAttempts;
+    }
+
+    long maxDelayMs() {
+        return maxDelayMs;
+    }
+
+    /** Rate limiting and "model loading" (503) are expected to pass; so are gateway errors. */
+    static boolean isRetryable(int code) {
+        return code == 429 || code == 502 || code == 503 || code == 504;
+    }
+
+    /**
+     * Delay before retry number {@code retry} (1 for the first): uniform in
+     * [0, min(max, base * 2^(retry-1))], but never shorter than {@code retryAfterMs} (-1 if none).
+     */
+    synchronized long delayMs(int retry, long retryAfterMs) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(retry - 1, 30));
+        long jittered = (long) (random.nextDouble() * ceiling);
+        return Math.max(jittered, retryAfterMs);
+    }
+
+    /** Takes one retry from the budget; false when retries are exhausted for now. */
+    synchronized boolean tryAcquireRetry() {
+        if (budget < 1) return false;
+        budget -= 1;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        budget = Math.min(maxBudget, budget + budgetPerSuccess);
+    }
+
+    /**
+     * A {@code Retry-After} value in milliseconds from now: delta-seconds or an HTTP date.
+     * Returns -1 when the header is missing or unreadable.
+     */
+    static long parseRetryAfter(String header, long nowMs) {
+        if (header == null) return -1;
+        String value = header.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException ignored) {
+            // Not delta-seconds; try the date form
+        }
+        SimpleDateFormat httpDate = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        try {
+            return Math.max(0, httpDate.parse(value).getTime() - nowMs);
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.smarttasks.api;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
+
+/** Task sync backend (configured with SYNC_BASE_URL). Payloads are streamed with {@link TaskJsonCodec}. */
+public interface SyncApiService {
+
+    /**
+     * POST /tasks/changes
+     * Body: [{ "op": "INSERT|UPDATE|DELETE", "taskId": 1, "idempotencyKey": "...", "task": {...} }]
+     * The server applies each idempotency key at most once, so a batch can be retried safely
+     * after a timeout.
+     */
+    @POST("tasks/changes")
+    Call<Void> pushChanges(@Body RequestBody changes);
+
+    /**
+     * GET /tasks/changes?since={token}&limit={limit}
+     * Response: { "tasks": [...], "deleted": [{ "id": 1, "deletedAt": 0 }], "syncToken": "...", "hasMore": false }
+     * Changes after the token (everything for a null token), oldest first. Follow
+     * {@code syncToken} while {@code hasMore} is set.
+     */
+    @Streaming
+    @GET("tasks/changes")
+    Call<ResponseBody> getChanges(@Query("since") String syncToken, @Query("limit") int limit);
+}
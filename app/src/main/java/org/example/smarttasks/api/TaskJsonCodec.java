@@ -0,0 +1,162 @@
+package org.example.smarttasks.api;
+
+import android.database.Cursor;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.example.smarttasks.Task;
+import java.io.IOException;
+
+/**
+ * Streaming JSON for sync payloads. Tasks are decoded one at a time and encoded straight from
+ * a cursor row, so memory is bounded by the caller's batch size rather than the payload.
+ * Field names match {@link TaskApiModel}.
+ */
+public final class TaskJsonCodec {
+
+    /** Receives the entries of a delta page as they are decoded. */
+    public interface DeltaHandler {
+        void onTask(Task task) throws IOException;
+
+        void onTombstone(int id, long deletedAt) throws IOException;
+    }
+
+    /** What follows the entries of a delta page. */
+    public static class DeltaEnd {
+        public final String syncToken;
+        public final boolean hasMore;
+
+        DeltaEnd(String syncToken, boolean hasMore) {
+            this.syncToken = syncToken;
+            this.hasMore = hasMore;
+        }
+    }
+
+    private TaskJsonCodec() {}
+
+    /**
+     * Reads {@code {"tasks": [...], "deleted": [{"id", "deletedAt"}], "syncToken": "...", "hasMore": bool}}
+     * in any field order, handing each entry over before the next is read.
+     */
+    public static DeltaEnd readDelta(JsonReader reader, DeltaHandler handler) throws IOException {
+        String syncToken = null;
+        boolean hasMore = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "tasks":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        handler.onTask(readTask(reader));
+                    }
+                    reader.endArray();
+                    break;
+                case "deleted":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readTombstone(reader, handler);
+                    }
+                    reader.endArray();
+                    break;
+                case "syncToken":
+                    syncToken = nextStringOrNull(reader);
+                    break;
+                case "hasMore":
+                    hasMore = reader.nextBoolean();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new DeltaEnd(syncToken, hasMore);
+    }
+
+    public static Task readTask(JsonReader reader) throws IOException {
+        int id = 0;
+        String title = null;
+        String description = null;
+        String priority = null;
+        String importance = null;
+        long dueDate = 0;
+        String status = null;
+        long createdAt = 0;
+        long updatedAt = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id": id = reader.nextInt(); break;
+                case "title": title = nextStringOrNull(reader); break;
+                case "description": description = nextStringOrNull(reader); break;
+                case "priority": priority = nextStringOrNull(reader); break;
+                case "importance": importance = nextStringOrNull(reader); break;
+                case "dueDate": dueDate = reader.nextLong(); break;
+                case "status": status = nextStringOrNull(reader); break;
+                case "createdAt": createdAt = reader.nextLong(); break;
+                case "updatedAt": updatedAt = reader.nextLong(); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        Task task = new Task(title, description, Task.Priority.valueOf(priority),
+                Task.Importance.valueOf(importance), dueDate);
+        task.setId(id);
+        task.setStatus(Task.Status.valueOf(status));
+        task.setCreatedAt(createdAt);
+        task.setUpdatedAt(updatedAt);
+        return task;
+    }
+
+    private static void readTombstone(JsonReader reader, DeltaHandler handler) throws IOException {
+        int id = 0;
+        long deletedAt = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id": id = reader.nextInt(); break;
+                case "deletedAt": deletedAt = reader.nextLong(); break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+        handler.onTombstone(id, deletedAt);
+    }
+
+    public static void writeTask(JsonWriter writer, Task task) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(task.getId());
+        writer.name("title").value(task.getTitle());
+        writer.name("description").value(task.getDescription());
+        writer.name("priority").value(task.getPriority().name());
+        writer.name("importance").value(task.getImportance().name());
+        writer.name("dueDate").value(task.getDueDate());
+        writer.name("status").value(task.getStatus().name());
+        writer.name("createdAt").value(task.getCreatedAt());
+        writer.name("updatedAt").value(task.getUpdatedAt());
+        writer.endObject();
+    }
+
+    /** Same as {@link #writeTask(JsonWriter, Task)} from the current row of a {@code tasks} cursor. */
+    public static void writeTask(JsonWriter writer, Cursor cursor) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(cursor.getInt(cursor.getColumnIndexOrThrow("id")));
+        writer.name("title").value(cursor.getString(cursor.getColumnIndexOrThrow("title")));
+        writer.name("description").value(cursor.getString(cursor.getColumnIndexOrThrow("description")));
+        writer.name("priority").value(cursor.getString(cursor.getColumnIndexOrThrow("priority")));
+        writer.name("importance").value(cursor.getString(cursor.getColumnIndexOrThrow("importance")));
+        writer.name("dueDate").value(cursor.getLong(cursor.getColumnIndexOrThrow("dueDate")));
+        writer.name("status").value(cursor.getString(cursor.getColumnIndexOrThrow("status")));
+        writer.name("createdAt").value(cursor.getLong(cursor.getColumnIndexOrThrow("createdAt")));
+        writer.name("updatedAt").value(cursor.getLong(cursor.getColumnIndexOrThrow("updatedAt")));
+        writer.endObject();
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.smarttasks.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Monotonic count; increments from many threads do not contend. */
+public final class Counter {
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    public void inc() {
+        count.increment();
+    }
+
+    public void add(long n) {
+        count.add(n);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.smarttasks.metrics;
+
+/** Last value of something that goes up and down, e.g. a queue length. */
+public final class Gauge {
+    private volatile long value;
+
+    Gauge() {
+    }
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    public long get() {
+        return value;
+    }
+
+    void reset() {
+        value = 0;
+    }
+}
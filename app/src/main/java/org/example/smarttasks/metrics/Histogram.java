@@ -0,0 +1,86 @@
+package org.example.smarttasks.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of non-negative values in power-of-two buckets: recording is a few atomic adds
+ * with no allocation, and percentiles are accurate to within a factor of two. Timers are
+ * histograms of nanoseconds.
+ */
+public final class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final boolean nanos;
+    // Bucket b holds values in [2^(b-1), 2^b); bucket 0 holds 0
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(boolean nanos) {
+        this.nanos = nanos;
+    }
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+        count.increment();
+        sum.add(value);
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+            // Retry until the larger value is stored
+        }
+    }
+
+    /** Records the time since {@code startNanos}, a {@link System#nanoTime()} reading. */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /** Upper bound of the bucket holding the {@code q} quantile (0 < q <= 1); 0 if empty. */
+    public long percentile(double q) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += buckets.get(b);
+            if (seen >= rank) {
+                return b == 0 ? 0 : Math.min(max.get(), b == BUCKETS - 1 ? Long.MAX_VALUE : (1L << b) - 1);
+            }
+        }
+        return max.get();
+    }
+
+    void reset() {
+        for (int b = 0; b < BUCKETS; b++) buckets.set(b, 0);
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    String summary() {
+        return String.format(Locale.US, "count=%d mean=%s p50=%s p90=%s p99=%s max=%s", count(),
+                format(mean()), format(percentile(0.5)), format(percentile(0.9)), format(percentile(0.99)), format(max()));
+    }
+
+    private String format(double value) {
+        return nanos ? String.format(Locale.US, "%.2fms", value / 1_000_000d) : String.format(Locale.US, "%.0f", value);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.smarttasks.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of counters, gauges and histograms. Instruments are created on first
+ * use; hot paths keep them in static fields so recording never looks anything up.
+ * {@link #dump()} renders everything for debugging ({@code adb shell dumpsys activity
+ * org.example.smarttasks/.TaskListActivity}).
+ */
+public final class Metrics {
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, n -> new Gauge());
+    }
+
+    /** Histogram of plain values such as sizes. */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram(false));
+    }
+
+    /** Histogram of durations in nanoseconds, shown in milliseconds. */
+    public Histogram timer(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram(true));
+    }
+
+    /** Zeroes every instrument; instruments held in fields stay registered. */
+    public void reset() {
+        for (Counter c : counters.values()) c.reset();
+        for (Gauge g : gauges.values()) g.reset();
+        for (Histogram h : histograms.values()) h.reset();
+    }
+
+    /** One line per instrument, sorted by name. */
+    public String dump() {
+        Map<String, String> lines = new TreeMap<>();
+        for (Map.Entry<String, Counter> e : counters.entrySet()) {
+            lines.put(e.getKey(), "counter " + e.getValue().get());
+        }
+        for (Map.Entry<String, Gauge> e : gauges.entrySet()) {
+            lines.put(e.getKey(), "gauge " + e.getValue().get());
+        }
+        for (Map.Entry<String, Histogram> e : histograms.entrySet()) {
+            lines.put(e.getKey(), "histogram " + e.getValue().summary());
+        }
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, String> line : lines.entrySet()) {
+            out.append(line.getKey()).append(' ').append(line.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+}
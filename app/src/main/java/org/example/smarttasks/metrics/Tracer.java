@@ -0,0 +1,49 @@
+package org.example.smarttasks.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Level-gated, sampled trace messages. Messages are built by a supplier that only runs when the
+ * level is enabled and the call is sampled, so a disabled trace costs a field read. Off until
+ * the app installs a sink (debug builds only).
+ */
+public final class Tracer {
+    public enum Level {
+        OFF, INFO, DEBUG
+    }
+
+    public interface Sink {
+        void log(String tag, String message);
+    }
+
+    private static volatile Level level = Level.OFF;
+    private static volatile double sampleRate = 1.0;
+    private static volatile Sink sink = (tag, message) -> { };
+
+    private Tracer() {
+    }
+
+    /** @param sampleRate fraction of DEBUG traces that are emitted, 0..1; INFO is never sampled */
+    public static void configure(Level level, double sampleRate, Sink sink) {
+        Tracer.sink = sink;
+        Tracer.sampleRate = sampleRate;
+        Tracer.level = level;
+    }
+
+    public static boolean isEnabled(Level at) {
+        return at != Level.OFF && level.compareTo(at) >= 0;
+    }
+
+    public static void info(String tag, Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            sink.log(tag, message.get());
+        }
+    }
+
+    public static void debug(String tag, Supplier<String> message) {
+        if (isEnabled(Level.DEBUG) && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sink.log(tag, message.get());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.smarttasks.sync;
+
+import android.database.Cursor;
+import com.google.gson.stream.JsonWriter;
+import org.example.smarttasks.PendingOp;
+import org.example.smarttasks.PendingOpDao;
+import org.example.smarttasks.api.TaskJsonCodec;
+import org.example.smarttasks.metrics.CountingOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * One outbox batch, encoded straight from a cursor over the outbox joined with the current task
+ * rows. Only the sent (taskId, idempotencyKey) pairs are kept in memory. OkHttp may write a body
+ * more than once; each write re-reads the outbox and replaces those pairs.
+ */
+class OutboxRequestBody extends RequestBody {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private final PendingOpDao outbox;
+    private final int limit;
+    private final List<PendingOp> sent = new ArrayList<>();
+    // Pending inserts/updates whose task row is gone; nothing to send, just drop them
+    private final List<PendingOp> orphans = new ArrayList<>();
+    private long bytesWritten;
+
+    OutboxRequestBody(PendingOpDao outbox, int limit) {
+        this.outbox = outbox;
+        this.limit = limit;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return JSON;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        sent.clear();
+        orphans.clear();
+        CountingOutputStream out = new CountingOutputStream(sink.outputStream());
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.beginArray();
+        try (Cursor cursor = outbox.getOldestWithTasks(limit)) {
+            int taskIdColumn = cursor.getColumnIndexOrThrow("outboxTaskId");
+            int opColumn = cursor.getColumnIndexOrThrow("outboxOp");
+            int keyColumn = cursor.getColumnIndexOrThrow("outboxKey");
+            int idColumn = cursor.getColumnIndexOrThrow("id");
+            while (cursor.moveToNext()) {
+                PendingOp op = new PendingOp(cursor.getInt(taskIdColumn),
+                        PendingOp.Op.valueOf(cursor.getString(opColumn)), cursor.getString(keyColumn), 0);
+                boolean delete = op.getOp() == PendingOp.Op.DELETE;
+                if (!delete && cursor.isNull(idColumn)) {
+                    orphans.add(op);
+                    continue;
+                }
+                writer.beginObject();
+                writer.name("op").value(op.getOp().name());
+                writer.name("taskId").value(op.getTaskId());
+                writer.name("idempotencyKey").value(op.getIdempotencyKey());
+                if (!delete) {
+                    writer.name("task");
+                    TaskJsonCodec.writeTask(writer, cursor);
+                }
+                writer.endObject();
+                sent.add(op);
+            }
+        }
+        writer.endArray();
+        // Flush only; the sink belongs to OkHttp
+        writer.flush();
+        bytesWritten = out.getCount();
+    }
+
+    /** Changes written by the last {@link #writeTo}; remove them once the server accepted the batch. */
+    List<PendingOp> getSent() {
+        return sent;
+    }
+
+    List<PendingOp> getOrphans() {
+        return orphans;
+    }
+
+    /** Uncompressed size of the last {@link #writeTo}. */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+}
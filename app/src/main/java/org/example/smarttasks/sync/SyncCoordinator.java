@@ -0,0 +1,185 @@
+package org.example.smarttasks.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs sync jobs single-flight: at most one run is in flight, and any requests that arrive
+ * meanwhile collapse into one follow-up run. Runs can be cancelled and time out; results are
+ * delivered on the callback executor (the main thread in the app), after the run stops
+ * counting as running.
+ */
+public class SyncCoordinator {
+
+    public interface Job {
+        /** Returns the number of changed tasks. Should stop early once {@code cancellation} fires. */
+        int run(Cancellation cancellation) throws Exception;
+    }
+
+    public interface Listener {
+        void onSuccess(int changedTasks);
+
+        void onError(String message);
+    }
+
+    /** Cancellation state of one run; blocking work registers hooks that abort it. */
+    public static final class Cancellation {
+        private final List<Runnable> hooks = new ArrayList<>();
+        private volatile boolean cancelled;
+        private volatile boolean timedOut;
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /** Runs {@code hook} on cancellation, or right away if already cancelled. */
+        public void onCancel(Runnable hook) {
+            synchronized (this) {
+                if (!cancelled) {
+                    hooks.add(hook);
+                    return;
+                }
+            }
+            hook.run();
+        }
+
+        void cancel(boolean timeout) {
+            List<Runnable> toRun;
+            synchronized (this) {
+                if (cancelled) return;
+                timedOut = timeout;
+                cancelled = true;
+                toRun = new ArrayList<>(hooks);
+                hooks.clear();
+            }
+            for (Runnable hook : toRun) {
+                hook.run();
+            }
+        }
+    }
+
+    private final Job job;
+    private final ExecutorService worker;
+    private final ScheduledExecutorService timer;
+    private final Executor callbacks;
+    private final long timeoutMs;
+    private Listener listener;
+
+    // Guarded by this
+    private Cancellation current;
+    private boolean followUp;
+
+    public SyncCoordinator(Job job, ExecutorService worker, ScheduledExecutorService timer,
+                           Executor callbacks, long timeoutMs) {
+        this.job = job;
+        this.worker = worker;
+        this.timer = timer;
+        this.callbacks = callbacks;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public synchronized void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Starts a run, or marks a follow-up if one is in flight. Returns whether a run was started. */
+    public synchronized boolean request() {
+        if (current != null) {
+            followUp = true;
+            return false;
+        }
+        start();
+        return true;
+    }
+
+    /** Cancels the run in flight (reported as an error) and drops any pending follow-up. */
+    public synchronized void cancel() {
+        followUp = false;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return current != null;
+    }
+
+    private void start() {
+        Cancellation cancellation = new Cancellation();
+        current = cancellation;
+        // Claimed by whichever comes first: the worker starting the run, or its cancellation
+        AtomicBoolean claimed = new AtomicBoolean();
+        // Scheduled now, so a run still queued behind other work times out too
+        ScheduledFuture<?> timeout = timer.schedule(() -> cancellation.cancel(true), timeoutMs, TimeUnit.MILLISECONDS);
+        Future<?> future = worker.submit(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                execute(cancellation, timeout);
+            }
+        });
+        cancellation.onCancel(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                // Never started: it will not run, so it is cleared and reported here
+                future.cancel(false);
+                timeout.cancel(false);
+                finish(cancellation);
+                deliver(cancelled(cancellation));
+            } else {
+                future.cancel(true);
+            }
+        });
+    }
+
+    private void execute(Cancellation cancellation, ScheduledFuture<?> timeout) {
+        Consumer<Listener> result;
+        try {
+            int changed = job.run(cancellation);
+            result = cancellation.isCancelled() ? cancelled(cancellation) : l -> l.onSuccess(changed);
+        } catch (Exception e) {
+            if (cancellation.isCancelled()) {
+                result = cancelled(cancellation);
+            } else {
+                String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                result = l -> l.onError(message);
+            }
+        } finally {
+            timeout.cancel(false);
+            // Before the result goes out, so listeners see the sync as finished
+            finish(cancellation);
+        }
+        deliver(result);
+    }
+
+    private synchronized void finish(Cancellation cancellation) {
+        if (current != cancellation) return;
+        current = null;
+        if (followUp) {
+            followUp = false;
+            start();
+        }
+    }
+
+    private static Consumer<Listener> cancelled(Cancellation cancellation) {
+        String message = cancellation.timedOut ? "Sync timed out" : "Sync cancelled";
+        return l -> l.onError(message);
+    }
+
+    private void deliver(Consumer<Listener> delivery) {
+        callbacks.execute(() -> {
+            Listener l;
+            synchronized (this) {
+                l = listener;
+            }
+            if (l != null) {
+                delivery.accept(l);
+            }
+        });
+    }
+}
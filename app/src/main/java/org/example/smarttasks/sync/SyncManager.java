@@ -1,36 +1,138 @@
 package org.example.smarttasks.sync;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.net.ConnectivityManager;
+import android.net.Network;
 import android.net.NetworkInfo;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import com.google.gson.stream.JsonReader;
+import org.example.smarttasks.PendingOp;
+import org.example.smarttasks.PendingOpDao;
 import org.example.smarttasks.Task;
+import org.example.smarttasks.TaskCache;
+import org.example.smarttasks.TaskDatabase;
+import org.example.smarttasks.TaskOrganizerAI;
 import org.example.smarttasks.api.ApiClient;
-import org.example.smarttasks.api.TaskApiModel;
+import org.example.smarttasks.api.SyncApiService;
+import org.example.smarttasks.api.TaskJsonCodec;
 import org.example.smarttasks.api.TaskApiService;
-import org.example.smarttasks.BuildConfig;
+import org.example.smarttasks.metrics.Counter;
+import org.example.smarttasks.metrics.CountingInputStream;
+import org.example.smarttasks.metrics.Gauge;
+import org.example.smarttasks.metrics.Histogram;
+import org.example.smarttasks.metrics.Metrics;
+import org.example.smarttasks.metrics.Tracer;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
-import retrofit2.Callback;
 import retrofit2.Response;
 
+/**
+ * Task sync. Local writes are recorded in a durable outbox (one coalesced operation per task)
+ * and flushed in batches while online, including when connectivity returns.
+ */
 public class SyncManager {
     private static final String TAG = "SyncManager";
+    static final int FLUSH_BATCH_SIZE = 100;
+    static final int PULL_PAGE_SIZE = 2000;
+    // Decoded server changes are merged and written this many at a time
+    static final int APPLY_BATCH_SIZE = 200;
+    // SQLite allows 999 bind variables per statement
+    private static final int MAX_IDS_PER_QUERY = 500;
+    private static final String PREFS_NAME = "sync";
+    // Opaque server watermark: changes after it have not been pulled yet
+    private static final String KEY_SYNC_TOKEN = "syncToken";
+    // Changes made within this window go out in the same batch
+    private static final long FLUSH_DELAY_MS = 1000;
+    // A whole sync (push plus pull) is cancelled after this long
+    static final long SYNC_TIMEOUT_MS = 120_000;
+    private static final long SIMULATED_SYNC_MS = 2000;
+
+    // Payload sizes are uncompressed bytes per request
+    private static final Histogram SYNC_TIME = Metrics.get().timer("sync.time");
+    private static final Counter SYNC_ERRORS = Metrics.get().counter("sync.errors");
+    private static final Histogram PUSH_BYTES = Metrics.get().histogram("sync.push.bytes");
+    private static final Histogram PUSH_CHANGES = Metrics.get().histogram("sync.push.changes");
+    private static final Histogram PULL_BYTES = Metrics.get().histogram("sync.pull.bytes");
+    private static final Histogram PULL_CHANGES = Metrics.get().histogram("sync.pull.changes");
+    // Outbox length when a flush last looked at it
+    private static final Gauge OUTBOX_PENDING = Metrics.get().gauge("sync.outbox.pending");
     private static SyncManager instance;
     private Context context;
     private TaskApiService apiService;
+    private SyncApiService syncService;
+    private TaskDatabase database;
+    private PendingOpDao outbox;
+    private TaskCache taskCache;
+    private SharedPreferences prefs;
     private SyncCallback callback;
+    private final List<TaskChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService timeoutExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Syncs run on the flush thread, so they never overlap a background flush
+    private final SyncCoordinator coordinator =
+            new SyncCoordinator(this::runSync, flushExecutor, timeoutExecutor, mainHandler::post, SYNC_TIMEOUT_MS);
 
     public interface SyncCallback {
-        void onSyncSuccess(List<Task> tasks);
+        void onSyncSuccess(int changedTasks);
         void onSyncError(String error);
         void onSyncProgress(String message);
     }
 
+    /** Tasks a pull wrote, delivered on the flush thread after each batch commits. */
+    public interface TaskChangeListener {
+        void onTasksChanged(List<Task> upserted, List<Integer> deletedIds);
+    }
+
     private SyncManager(Context context) {
         this.context = context.getApplicationContext();
         this.apiService = ApiClient.getInstance().getApiService();
+        this.syncService = ApiClient.getInstance().getSyncService();
+        this.database = TaskDatabase.getInstance(this.context);
+        this.outbox = database.pendingOpDao();
+        this.taskCache = TaskCache.getInstance(this.context);
+        this.prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        coordinator.setListener(new SyncCoordinator.Listener() {
+            @Override
+            public void onSuccess(int changedTasks) {
+                if (callback != null) callback.onSyncSuccess(changedTasks);
+            }
+
+            @Override
+            public void onError(String message) {
+                if (callback != null) callback.onSyncError(message);
+            }
+        });
+
+        ConnectivityManager connectivityManager =
+            (ConnectivityManager) this.context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                requestFlush();
+            }
+        });
+        // Changes left over from a previous run
+        requestFlush();
     }
 
     public static synchronized SyncManager getInstance(Context context) {
@@ -44,6 +146,14 @@ public class SyncManager {
         this.callback = callback;
     }
 
+    public void addTaskChangeListener(TaskChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeTaskChangeListener(TaskChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
     public boolean isOnline() {
         ConnectivityManager connectivityManager = 
             (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
@@ -51,213 +161,278 @@ public class SyncManager {
         return networkInfo != null && networkInfo.isConnected();
     }
 
-    public void syncTasks(List<Task> localTasks) {
+    /**
+     * Pushes the outbox, then pulls the server changes since the stored sync token. Only rows
+     * changed since the last sync travel in either direction. Requests made while a sync is
+     * running share one follow-up sync; results arrive on the main thread.
+     */
+    public void syncTasks() {
         if (!isOnline()) {
             if (callback != null) callback.onSyncError("No internet connection");
             return;
         }
-        if (callback != null) callback.onSyncProgress("Starting sync...");
-
-        // If no token, simulate success; otherwise we could extend to real backend sync
-        if (!BuildConfig.HF_ENABLED) {
-            simulateSync(localTasks);
-            return;
+        if (coordinator.request()) {
+            if (callback != null) callback.onSyncProgress("Starting sync...");
+        } else {
+            if (callback != null) callback.onSyncProgress("Sync in progress, will run again when it finishes");
         }
-
-        // For now, keep simulated sync for tasks; HF is used by scoring client separately
-        simulateSync(localTasks);
     }
 
-    private void simulateSync(List<Task> localTasks) {
-        // Simulate network delay
-        new Thread(() -> {
-            try {
-                Thread.sleep(2000); // 2 second delay
-                
-                runOnUiThread(() -> {
-                    if (callback != null) {
-                        callback.onSyncSuccess(localTasks);
-                    }
-                });
-            } catch (InterruptedException e) {
-                runOnUiThread(() -> {
-                    if (callback != null) {
-                        callback.onSyncError("Sync interrupted");
-                    }
-                });
-            }
-        }).start();
+    /** Cancels the running sync, if any; it is reported through {@link SyncCallback#onSyncError}. */
+    public void cancelSync() {
+        coordinator.cancel();
     }
 
-    private void runOnUiThread(Runnable runnable) {
-        // This would normally use a Handler or runOnUiThread
-        // For now, we'll just run it directly
-        runnable.run();
+    /** Whether a sync is queued or running; already false when its result is reported. */
+    public boolean isSyncing() {
+        return coordinator.isRunning();
     }
 
-    private void downloadTasksFromServer(List<Task> localTasks) {
-        // Removed real backend fetch; kept placeholder to avoid compile dependency
-        Callback<List<TaskApiModel>> cb = new Callback<List<TaskApiModel>>() {
-            @Override
-            public void onResponse(Call<List<TaskApiModel>> call, Response<List<TaskApiModel>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    List<Task> serverTasks = convertApiModelsToTasks(response.body());
-                    List<Task> mergedTasks = mergeTasks(localTasks, serverTasks);
-                    
-                    if (callback != null) {
-                        callback.onSyncSuccess(mergedTasks);
-                    }
-                } else {
-                    if (callback != null) {
-                        callback.onSyncError("Failed to download tasks from server");
-                    }
-                }
+    /** Flush thread: one sync run. Returns how many tasks the pull changed. */
+    private int runSync(SyncCoordinator.Cancellation cancellation) throws IOException, InterruptedException {
+        // Without a sync backend, simulate success
+        if (syncService == null) {
+            Thread.sleep(SIMULATED_SYNC_MS);
+            return 0;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!flush(cancellation)) {
+                throw new IOException("Failed to upload local changes");
             }
+            return downloadTasksFromServer(cancellation);
+        } catch (IOException | RuntimeException e) {
+            SYNC_ERRORS.inc();
+            throw e;
+        } finally {
+            SYNC_TIME.recordSince(start);
+        }
+    }
 
-            @Override
-            public void onFailure(Call<List<TaskApiModel>> call, Throwable t) {
-                Log.e(TAG, "Sync failed", t);
-                if (callback != null) {
-                    callback.onSyncError("Network error: " + t.getMessage());
+    /**
+     * Flush thread: pulls server changes page by page, advancing the sync token after each page
+     * commits. Returns how many tasks were stored.
+     */
+    private int downloadTasksFromServer(SyncCoordinator.Cancellation cancellation) throws IOException {
+        int received = 0;
+        String token = prefs.getString(KEY_SYNC_TOKEN, null);
+        boolean rejected = false;
+        try {
+            TaskJsonCodec.DeltaEnd end;
+            do {
+                Call<ResponseBody> call = syncService.getChanges(token, PULL_PAGE_SIZE);
+                // Aborts a blocked read; the page's applied batches stay, the token does not advance
+                cancellation.onCancel(call::cancel);
+                Response<ResponseBody> response = call.execute();
+                if (!response.isSuccessful() || response.body() == null) {
+                    Log.e(TAG, "Failed to download changes: " + response.code());
+                    rejected = true;
+                    break;
                 }
-            }
-        };
-        // In demo mode, simulate with localTasks converted
-        List<TaskApiModel> demo = new ArrayList<>();
-        cb.onResponse(null, Response.success(demo));
+                // Entries are decoded one at a time and applied in batches
+                DeltaBatcher batcher = new DeltaBatcher();
+                CountingInputStream in;
+                try (ResponseBody body = response.body()) {
+                    in = new CountingInputStream(body.byteStream());
+                    end = TaskJsonCodec.readDelta(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)), batcher);
+                }
+                batcher.flush();
+                PULL_BYTES.record(in.getCount());
+                PULL_CHANGES.record(batcher.entries);
+                received += batcher.stored;
+                token = end.syncToken;
+                // Re-applying a page after a crash is harmless, so the token is saved after the commit
+                prefs.edit().putString(KEY_SYNC_TOKEN, token).apply();
+            } while (end.hasMore && !cancellation.isCancelled());
+        } catch (IOException e) {
+            Log.e(TAG, "Sync failed", e);
+            throw new IOException("Network error: " + e.getMessage(), e);
+        }
+        if (rejected) {
+            throw new IOException("Failed to download tasks from server");
+        }
+        return received;
     }
 
-    public void uploadTask(Task task) {
-        if (!isOnline()) {
-            Log.w(TAG, "Cannot upload task - no internet connection");
-            return;
+    /** Collects decoded delta entries and applies them every {@link #APPLY_BATCH_SIZE}. */
+    private class DeltaBatcher implements TaskJsonCodec.DeltaHandler {
+        private final List<Task> tasks = new ArrayList<>();
+        private final Map<Integer, Long> tombstones = new HashMap<>();
+        int entries;
+        int stored;
+
+        @Override
+        public void onTask(Task task) {
+            entries++;
+            tasks.add(task);
+            if (tasks.size() + tombstones.size() >= APPLY_BATCH_SIZE) flush();
         }
 
-        TaskApiModel apiModel = convertTaskToApiModel(task);
-        // Placeholder: not calling a real backend in demo
-        Call<TaskApiModel> call = null;
-        
-        new Callback<TaskApiModel>() {
-            @Override
-            public void onResponse(Call<TaskApiModel> call, Response<TaskApiModel> response) {
-                if (response.isSuccessful()) {
-                    Log.d(TAG, "Task uploaded successfully");
-                } else {
-                    Log.e(TAG, "Failed to upload task: " + response.code());
-                }
-            }
+        @Override
+        public void onTombstone(int id, long deletedAt) {
+            entries++;
+            tombstones.put(id, deletedAt);
+            if (tasks.size() + tombstones.size() >= APPLY_BATCH_SIZE) flush();
+        }
 
-            @Override
-            public void onFailure(Call<TaskApiModel> call, Throwable t) {
-                Log.e(TAG, "Upload failed", t);
-            }
-        };
+        void flush() {
+            if (tasks.isEmpty() && tombstones.isEmpty()) return;
+            stored += applyDelta(tasks, tombstones);
+            tasks.clear();
+            tombstones.clear();
+        }
     }
 
-    public void updateTaskOnServer(Task task) {
-        if (!isOnline()) {
-            Log.w(TAG, "Cannot update task - no internet connection");
-            return;
+    /** Merges a batch of server changes in a single transaction and returns how many tasks it stored. */
+    private int applyDelta(List<Task> serverTasks, Map<Integer, Long> serverTombstones) {
+        List<Integer> ids = new ArrayList<>(serverTasks.size() + serverTombstones.size());
+        for (Task task : serverTasks) {
+            ids.add(task.getId());
         }
+        ids.addAll(serverTombstones.keySet());
 
-        TaskApiModel apiModel = convertTaskToApiModel(task);
-        // Placeholder: not calling a real backend in demo
-        Call<TaskApiModel> call = null;
-        
-        new Callback<TaskApiModel>() {
-            @Override
-            public void onResponse(Call<TaskApiModel> call, Response<TaskApiModel> response) {
-                if (response.isSuccessful()) {
-                    Log.d(TAG, "Task updated successfully");
-                } else {
-                    Log.e(TAG, "Failed to update task: " + response.code());
+        // Read local state and write the result in one transaction so no local edit slips in between
+        TaskMerger.Result applied = database.runInTransaction(() -> {
+            List<Task> localTasks = new ArrayList<>();
+            Set<Integer> pendingIds = new HashSet<>();
+            Map<Integer, Long> localTombstones = new HashMap<>();
+            for (List<Integer> chunk : chunks(ids)) {
+                localTasks.addAll(database.taskDao().getTasksByIds(chunk));
+                for (PendingOp op : outbox.getForTasks(chunk)) {
+                    pendingIds.add(op.getTaskId());
+                    if (op.getOp() == PendingOp.Op.DELETE) {
+                        // Stamped when the delete was recorded
+                        localTombstones.put(op.getTaskId(), op.getEnqueuedAt());
+                    }
                 }
             }
+            TaskMerger.Result merge = TaskMerger.merge(localTasks, serverTasks, serverTombstones,
+                    localTombstones, pendingIds);
 
-            @Override
-            public void onFailure(Call<TaskApiModel> call, Throwable t) {
-                Log.e(TAG, "Update failed", t);
+            // Cloud scores are local only; keep them for tasks the server changed
+            Map<Integer, Task> localById = new HashMap<>();
+            for (Task task : localTasks) {
+                localById.put(task.getId(), task);
             }
-        };
-    }
-
-    public void deleteTaskOnServer(int taskId) {
-        if (!isOnline()) {
-            Log.w(TAG, "Cannot delete task - no internet connection");
-            return;
-        }
-
-        // Placeholder: not calling a real backend in demo
-        Call<Void> call = null;
-        
-        new Callback<Void>() {
-            @Override
-            public void onResponse(Call<Void> call, Response<Void> response) {
-                if (response.isSuccessful()) {
-                    Log.d(TAG, "Task deleted successfully");
-                } else {
-                    Log.e(TAG, "Failed to delete task: " + response.code());
+            List<Integer> serverWon = new ArrayList<>();
+            for (Task task : merge.toUpsert) {
+                Task local = localById.get(task.getId());
+                if (local != null) {
+                    task.setCloudImportance(local.getCloudImportance());
+                    task.setCloudUrgency(local.getCloudUrgency());
+                    task.setScoredAt(local.getScoredAt());
                 }
+                task.setScore(TaskOrganizerAI.getStaticScore(task));
+                serverWon.add(task.getId());
             }
+            serverWon.addAll(merge.toDelete);
 
-            @Override
-            public void onFailure(Call<Void> call, Throwable t) {
-                Log.e(TAG, "Delete failed", t);
+            if (!merge.toUpsert.isEmpty()) {
+                database.taskDao().upsertAll(merge.toUpsert);
+            }
+            for (List<Integer> chunk : chunks(merge.toDelete)) {
+                database.taskDao().deleteByIds(chunk);
+            }
+            // Pending changes the server overrode must not be pushed afterwards
+            for (List<Integer> chunk : chunks(serverWon)) {
+                outbox.removeAll(chunk);
+            }
+            // Local versions that won go back to the server
+            for (int id : merge.toPush) {
+                recordChange(id, PendingOp.Op.UPDATE);
             }
-        };
+            return merge;
+        });
+        // Outside the transaction, and the counts (a pass each) only when someone reads them
+        if (Tracer.isEnabled(Tracer.Level.DEBUG)) {
+            Tracer.debug(TAG, () -> "Merged " + applied.outcomes.size() + " changes: "
+                    + applied.count(TaskMerger.Outcome.TOOK_SERVER) + " from server, "
+                    + applied.count(TaskMerger.Outcome.KEPT_LOCAL) + " kept local, "
+                    + applied.count(TaskMerger.Outcome.CONFLICT) + " conflicts");
+        }
+        if (!applied.toUpsert.isEmpty() || !applied.toDelete.isEmpty()) {
+            // Now rather than when the invalidation tracker gets to it, so no edit reads the old rows
+            taskCache.invalidate();
+            for (TaskChangeListener listener : changeListeners) {
+                listener.onTasksChanged(applied.toUpsert, applied.toDelete);
+            }
+        }
+        return applied.toUpsert.size();
     }
 
-    private List<Task> convertApiModelsToTasks(List<TaskApiModel> apiModels) {
-        List<Task> tasks = new ArrayList<>();
-        for (TaskApiModel apiModel : apiModels) {
-            Task task = new Task(
-                apiModel.getTitle(),
-                apiModel.getDescription(),
-                Task.Priority.valueOf(apiModel.getPriority()),
-                Task.Importance.valueOf(apiModel.getImportance()),
-                apiModel.getDueDate()
-            );
-            task.setId(apiModel.getId());
-            task.setStatus(Task.Status.valueOf(apiModel.getStatus()));
-            task.setCreatedAt(apiModel.getCreatedAt());
-            tasks.add(task);
+    private static List<List<Integer>> chunks(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            chunks.add(ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size())));
         }
-        return tasks;
+        return chunks;
     }
 
-    private TaskApiModel convertTaskToApiModel(Task task) {
-        TaskApiModel apiModel = new TaskApiModel();
-        apiModel.setId(task.getId());
-        apiModel.setTitle(task.getTitle());
-        apiModel.setDescription(task.getDescription());
-        apiModel.setPriority(task.getPriority().name());
-        apiModel.setImportance(task.getImportance().name());
-        apiModel.setDueDate(task.getDueDate());
-        apiModel.setStatus(task.getStatus().name());
-        apiModel.setCreatedAt(task.getCreatedAt());
-        apiModel.setUpdatedAt(System.currentTimeMillis());
-        return apiModel;
+    /**
+     * Records a change in the outbox, coalesced with any change still pending for the task.
+     * Call it inside the transaction that writes the task so the two commit together.
+     */
+    public void recordChange(int taskId, PendingOp.Op op) {
+        database.runInTransaction(() -> {
+            PendingOp pending = outbox.get(taskId);
+            // New key: the coalesced change carries newer content than anything already sent
+            outbox.put(PendingOp.next(pending, taskId, op, UUID.randomUUID().toString(),
+                    System.currentTimeMillis()));
+        });
     }
 
-    private List<Task> mergeTasks(List<Task> localTasks, List<Task> serverTasks) {
-        // Simple merge strategy: server wins for conflicts
-        // In a real app, you'd implement more sophisticated conflict resolution
-        List<Task> mergedTasks = new ArrayList<>(serverTasks);
-        
-        // Add local tasks that don't exist on server
-        for (Task localTask : localTasks) {
-            boolean existsOnServer = false;
-            for (Task serverTask : serverTasks) {
-                if (localTask.getId() == serverTask.getId()) {
-                    existsOnServer = true;
-                    break;
+    /**
+     * Schedules an outbox flush. Requests made before it runs share it, so a burst of edits
+     * goes out as one batch. Without a sync backend changes stay queued.
+     */
+    public void requestFlush() {
+        if (syncService == null) return;
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.schedule(() -> {
+                flushScheduled.set(false);
+                flush(null);
+            }, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Flush thread: sends the outbox oldest first until it is empty, offline, or a batch fails.
+     * Returns whether the outbox was emptied. A flush that is part of a sync also stops once
+     * the sync is cancelled; {@code cancellation} is null for background flushes.
+     */
+    private boolean flush(SyncCoordinator.Cancellation cancellation) {
+        while (isOnline() && (cancellation == null || !cancellation.isCancelled())) {
+            int pending = outbox.count();
+            OUTBOX_PENDING.set(pending);
+            if (pending == 0) return true;
+
+            // Encoded from a cursor while OkHttp writes the request
+            OutboxRequestBody body = new OutboxRequestBody(outbox, FLUSH_BATCH_SIZE);
+            Call<Void> call = syncService.pushChanges(body);
+            if (cancellation != null) cancellation.onCancel(call::cancel);
+            try {
+                Response<Void> response = call.execute();
+                if (!response.isSuccessful()) {
+                    Log.e(TAG, "Outbox flush rejected: " + response.code());
+                    return false;
                 }
+            } catch (IOException e) {
+                // Kept in the outbox; retried with the same keys on the next flush
+                Log.w(TAG, "Outbox flush failed", e);
+                return false;
             }
-            if (!existsOnServer) {
-                mergedTasks.add(localTask);
-            }
+            database.runInTransaction(() -> {
+                for (PendingOp op : body.getSent()) {
+                    outbox.remove(op.getTaskId(), op.getIdempotencyKey());
+                }
+                for (PendingOp op : body.getOrphans()) {
+                    outbox.remove(op.getTaskId(), op.getIdempotencyKey());
+                }
+            });
+            PUSH_BYTES.record(body.getBytesWritten());
+            PUSH_CHANGES.record(body.getSent().size());
+            Log.d(TAG, "Flushed " + body.getSent().size() + " changes");
         }
-        
-        return mergedTasks;
+        return false;
     }
 }
@@ -0,0 +1,98 @@
+package org.example.smarttasks.sync;
+
+import org.example.smarttasks.Task;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges server changes into local tasks with last-writer-wins on {@code updatedAt}.
+ * Both sides are indexed by id, so a merge is O(n + m). Ties go to the server so every
+ * client converges on the same copy.
+ */
+public final class TaskMerger {
+
+    public enum Outcome {
+        KEPT_LOCAL,
+        TOOK_SERVER,
+        // Both sides changed since the last sync; the newer write won
+        CONFLICT
+    }
+
+    private TaskMerger() {}
+
+    /**
+     * @param localTasks       Local rows for the ids the server sent
+     * @param serverTasks      Changed tasks from the server
+     * @param serverTombstones Ids the server deleted -> deletion time
+     * @param localTombstones  Ids deleted locally but not yet pushed -> deletion time
+     * @param pendingIds       Ids with local changes not yet pushed
+     */
+    public static Result merge(List<Task> localTasks, List<Task> serverTasks,
+                               Map<Integer, Long> serverTombstones, Map<Integer, Long> localTombstones,
+                               Set<Integer> pendingIds) {
+        Map<Integer, Task> localById = new HashMap<>(localTasks.size() * 2);
+        for (Task task : localTasks) {
+            localById.put(task.getId(), task);
+        }
+
+        Result result = new Result();
+        for (Task server : serverTasks) {
+            int id = server.getId();
+            Task local = localById.get(id);
+            Long deletedAt = localTombstones.get(id);
+            boolean conflict = pendingIds.contains(id);
+            if (local != null && local.getUpdatedAt() > server.getUpdatedAt()) {
+                result.keepLocal(id, conflict);
+            } else if (local == null && deletedAt != null && deletedAt > server.getUpdatedAt()) {
+                // Our pending delete is newer; the outbox still carries it
+                result.outcomes.put(id, conflict ? Outcome.CONFLICT : Outcome.KEPT_LOCAL);
+            } else {
+                result.toUpsert.add(server);
+                result.outcomes.put(id, conflict ? Outcome.CONFLICT : Outcome.TOOK_SERVER);
+            }
+        }
+
+        for (Map.Entry<Integer, Long> tombstone : serverTombstones.entrySet()) {
+            int id = tombstone.getKey();
+            if (result.outcomes.containsKey(id)) continue; // The same page also carries a newer version
+            Task local = localById.get(id);
+            boolean conflict = pendingIds.contains(id);
+            if (local != null && local.getUpdatedAt() > tombstone.getValue()) {
+                // Edited after the server deleted it: resurrect by pushing it again
+                result.keepLocal(id, conflict);
+            } else {
+                result.toDelete.add(id);
+                result.outcomes.put(id, conflict ? Outcome.CONFLICT : Outcome.TOOK_SERVER);
+            }
+        }
+        return result;
+    }
+
+    public static class Result {
+        /** Server versions to write locally. */
+        public final List<Task> toUpsert = new ArrayList<>();
+        /** Ids to delete locally. */
+        public final List<Integer> toDelete = new ArrayList<>();
+        /** Local versions that won and must be pushed back to the server. */
+        public final List<Integer> toPush = new ArrayList<>();
+        /** Outcome per task id, in input order. */
+        public final Map<Integer, Outcome> outcomes = new LinkedHashMap<>();
+
+        private void keepLocal(int id, boolean conflict) {
+            toPush.add(id);
+            outcomes.put(id, conflict ? Outcome.CONFLICT : Outcome.KEPT_LOCAL);
+        }
+
+        public int count(Outcome outcome) {
+            int count = 0;
+            for (Outcome o : outcomes.values()) {
+                if (o == outcome) count++;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.smarttasks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class LatestOnlyStageTest {
+    private final Queue<Runnable> queued = new ArrayDeque<>();
+
+    private void runQueued() {
+        Runnable next;
+        while ((next = queued.poll()) != null) {
+            next.run();
+        }
+    }
+
+    @Test
+    public void testOnlyTheNewestWaitingInputRuns() {
+        List<String> ran = new ArrayList<>();
+        LatestOnlyStage<String> stage = new LatestOnlyStage<>("test.stage", queued::add,
+                (input, superseded) -> ran.add(input));
+
+        stage.submit("a");
+        stage.submit("b");
+        stage.submit("c");
+        assertEquals(1, queued.size());
+        runQueued();
+
+        assertEquals(Arrays.asList("c"), ran);
+    }
+
+    @Test
+    public void testInputDuringARunSupersedesItAndRunsNext() {
+        List<String> ran = new ArrayList<>();
+        boolean[] sawSuperseded = new boolean[1];
+        AtomicReference<LatestOnlyStage<String>> stage = new AtomicReference<>();
+        stage.set(new LatestOnlyStage<>("test.stage", queued::add, (input, superseded) -> {
+            ran.add(input);
+            if (input.equals("a")) {
+                assertFalse(superseded.getAsBoolean());
+                stage.get().submit("b");
+                stage.get().submit("c");
+                sawSuperseded[0] = superseded.getAsBoolean();
+            } else {
+                assertFalse(superseded.getAsBoolean());
+            }
+        }));
+
+        stage.get().submit("a");
+        runQueued();
+
+        assertTrue(sawSuperseded[0]);
+        assertEquals(Arrays.asList("a", "c"), ran);
+    }
+
+    @Test
+    public void testAFailedRunDoesNotStallTheStage() {
+        List<String> ran = new ArrayList<>();
+        LatestOnlyStage<String> stage = new LatestOnlyStage<>("test.stage", queued::add, (input, superseded) -> {
+            if (input.equals("bad")) throw new IllegalStateException();
+            ran.add(input);
+        });
+
+        stage.submit("bad");
+        try {
+            runQueued();
+        } catch (IllegalStateException expected) {
+        }
+        stage.submit("good");
+        runQueued();
+
+        assertEquals(Arrays.asList("good"), ran);
+    }
+}
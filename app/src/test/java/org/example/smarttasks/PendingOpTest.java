@@ -0,0 +1,43 @@
+package org.example.smarttasks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class PendingOpTest {
+
+    @Test
+    public void testFirstChangeIsKept() {
+        assertEquals(PendingOp.Op.INSERT, PendingOp.coalesce(null, PendingOp.Op.INSERT));
+        assertEquals(PendingOp.Op.UPDATE, PendingOp.coalesce(null, PendingOp.Op.UPDATE));
+        assertEquals(PendingOp.Op.DELETE, PendingOp.coalesce(null, PendingOp.Op.DELETE));
+    }
+
+    @Test
+    public void testInsertThenUpdateStaysInsert() {
+        assertEquals(PendingOp.Op.INSERT, PendingOp.coalesce(PendingOp.Op.INSERT, PendingOp.Op.UPDATE));
+        assertEquals(PendingOp.Op.UPDATE, PendingOp.coalesce(PendingOp.Op.UPDATE, PendingOp.Op.UPDATE));
+    }
+
+    @Test
+    public void testDeleteWins() {
+        assertEquals(PendingOp.Op.DELETE, PendingOp.coalesce(PendingOp.Op.INSERT, PendingOp.Op.DELETE));
+        assertEquals(PendingOp.Op.DELETE, PendingOp.coalesce(PendingOp.Op.UPDATE, PendingOp.Op.DELETE));
+        assertEquals(PendingOp.Op.UPDATE, PendingOp.coalesce(PendingOp.Op.DELETE, PendingOp.Op.UPDATE));
+    }
+
+    @Test
+    public void testDeleteIsStampedWithItsOwnTime() {
+        PendingOp op = PendingOp.next(null, 1, PendingOp.Op.UPDATE, "a", 100);
+        op = PendingOp.next(op, 1, PendingOp.Op.UPDATE, "b", 200);
+        assertEquals(100, op.getEnqueuedAt());
+
+        op = PendingOp.next(op, 1, PendingOp.Op.DELETE, "c", 300);
+        assertEquals(PendingOp.Op.DELETE, op.getOp());
+        assertEquals(300, op.getEnqueuedAt());
+        assertEquals("c", op.getIdempotencyKey());
+    }
+}
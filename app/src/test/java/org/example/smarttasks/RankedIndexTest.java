@@ -0,0 +1,183 @@
+package org.example.smarttasks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class RankedIndexTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final long NOW = 1_700_000_000_000L;
+
+    private static Task task(int id, Task.Importance importance, long dueInDays, long createdAt) {
+        Task task = new Task("Task " + id, "", Task.Priority.MEDIUM, importance, NOW + dueInDays * DAY_MS);
+        task.setId(id);
+        task.setCreatedAt(createdAt);
+        task.setScore(TaskOrganizerAI.getStaticScore(task));
+        return task;
+    }
+
+    /** The reference order: full ranking by TaskOrganizerAI, ties by id. */
+    private static List<Integer> expectedIds(Map<Integer, Task> tasks) {
+        return expectedIds(tasks, NOW);
+    }
+
+    private static List<Integer> expectedIds(Map<Integer, Task> tasks, long now) {
+        List<Task> sorted = new ArrayList<>(tasks.values());
+        sorted.sort(Comparator.comparingInt(Task::getId));
+        Collections.sort(sorted, Comparator.comparingInt(
+                (Task t) -> -(t.getScore() + RankedIndex.DUE_WEIGHT * TaskOrganizerAI.computeDuePoints(t, now)))
+                .thenComparingLong(Task::getDueDate)
+                .thenComparingLong(Task::getCreatedAt));
+        List<Integer> ids = new ArrayList<>();
+        for (Task t : sorted) ids.add(t.getId());
+        return ids;
+    }
+
+    private static List<Integer> ids(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task t : tasks) ids.add(t.getId());
+        return ids;
+    }
+
+    @Test
+    public void testOrderMatchesFullRankingUnderRandomChanges() {
+        Random random = new Random(7);
+        RankedIndex index = new RankedIndex(() -> NOW);
+        Map<Integer, Task> expected = new HashMap<>();
+        for (int step = 0; step < 3000; step++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(id) != null, index.remove(id));
+            } else {
+                Task t = task(id, Task.Importance.values()[random.nextInt(3)],
+                        random.nextInt(40) - 5, random.nextInt(20));
+                expected.put(id, t);
+                index.put(t);
+            }
+        }
+
+        List<Integer> order = expectedIds(expected);
+        assertEquals(order.size(), index.size());
+        assertEquals(order, ids(index.range(0, index.size())));
+        for (int position = 0; position < order.size(); position++) {
+            assertEquals(position, index.indexOf(order.get(position)));
+            assertEquals((int) order.get(position), index.get(position).getId());
+        }
+    }
+
+    @Test
+    public void testPutAllMergesIntoTheIndex() {
+        Random random = new Random(11);
+        for (boolean parallel : new boolean[]{false, true}) {
+            RankedIndex index = new RankedIndex(() -> NOW);
+            Map<Integer, Task> expected = new HashMap<>();
+            for (int round = 0; round < 4; round++) {
+                // Overlapping ids, repeats within a batch, and few distinct keys so ties need the id
+                List<Task> batch = new ArrayList<>();
+                for (int i = 0; i < 20000; i++) {
+                    Task t = task(random.nextInt(30000), Task.Importance.values()[random.nextInt(3)],
+                            random.nextInt(40) - 5, random.nextInt(3));
+                    batch.add(t);
+                    expected.put(t.getId(), t);
+                }
+                index.putAll(batch, parallel);
+            }
+
+            List<Integer> order = expectedIds(expected);
+            assertEquals(order.size(), index.size());
+            assertEquals(order, ids(index.range(0, index.size())));
+            for (int position = 0; position < order.size(); position += 97) {
+                assertEquals(position, index.indexOf(order.get(position)));
+                assertSame(expected.get(order.get(position)), index.get(position));
+            }
+        }
+    }
+
+    @Test
+    public void testPutMovesAnExistingTask() {
+        RankedIndex index = new RankedIndex(() -> NOW);
+        index.put(task(1, Task.Importance.HIGH, 60, 0));
+        index.put(task(2, Task.Importance.MEDIUM, 60, 0));
+        index.put(task(3, Task.Importance.LOW, 60, 0));
+
+        Task raised = task(3, Task.Importance.HIGH, 1, 0);
+        index.put(raised);
+
+        assertEquals(3, index.size());
+        assertEquals(0, index.indexOf(3));
+        assertSame(raised, index.get(0));
+    }
+
+    @Test
+    public void testKeyIsCapturedWhenPut() {
+        RankedIndex index = new RankedIndex(() -> NOW);
+        Task a = task(1, Task.Importance.HIGH, 60, 0);
+        index.put(a);
+        index.put(task(2, Task.Importance.MEDIUM, 60, 0));
+
+        // Changing the object alone does not reorder it, and it can still be removed
+        a.setImportance(Task.Importance.LOW);
+        a.setScore(TaskOrganizerAI.getStaticScore(a));
+        assertEquals(0, index.indexOf(1));
+        index.remove(1);
+        assertEquals(1, index.size());
+        assertEquals(-1, index.indexOf(1));
+    }
+
+    @Test
+    public void testRangeClampsAtTheEnd() {
+        RankedIndex index = new RankedIndex(() -> NOW);
+        for (int id = 1; id <= 10; id++) {
+            index.put(task(id, Task.Importance.MEDIUM, 60, id));
+        }
+
+        assertEquals(ids(index.range(7, 3)), ids(index.range(7, 50)));
+        assertEquals(Collections.emptyList(), index.range(10, 5));
+        assertFalse(index.contains(11));
+    }
+
+    @Test
+    public void testRefreshDueReRanksOnlyTasksPastABoundary() {
+        long[] clock = {NOW};
+        RankedIndex index = new RankedIndex(() -> clock[0]);
+        Task soon = task(1, Task.Importance.MEDIUM, 8, 0);
+        Task later = task(2, Task.Importance.MEDIUM, 60, 0);
+        Task high = task(3, Task.Importance.HIGH, 20, 0);
+        index.put(soon);
+        index.put(later);
+        index.put(high);
+        assertEquals(1, soon.getDuePoints());
+        assertEquals(0, index.refreshDue());
+
+        // Two days on, task 1 is within the 7-day bucket; nothing else changed
+        clock[0] = NOW + 2 * DAY_MS;
+        assertTrue(index.nextDueRefresh() <= clock[0]);
+        assertEquals(1, index.refreshDue());
+        Task refreshed = index.get(index.indexOf(1));
+        assertNotSame(soon, refreshed);
+        assertEquals(2, refreshed.getDuePoints());
+        assertEquals(1, soon.getDuePoints());
+        assertSame(later, index.get(index.indexOf(2)));
+        assertEquals(0, index.refreshDue());
+
+        Map<Integer, Task> expected = new HashMap<>();
+        for (Task t : index.range(0, index.size())) expected.put(t.getId(), t);
+        assertEquals(expectedIds(expected, clock[0]), ids(index.range(0, index.size())));
+        assertTrue(index.nextDueRefresh() > clock[0]);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.smarttasks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(JUnit4.class)
+public class TaskCacheTest {
+    private final Map<Integer, Task> rows = new HashMap<>();
+    private int reads;
+    // Runs during the next read, after the row was taken
+    private Runnable duringRead;
+
+    /** A DAO that only answers getTask, from {@link #rows}, as a fresh object per read like Room. */
+    private TaskDao dao() {
+        return (TaskDao) Proxy.newProxyInstance(TaskDao.class.getClassLoader(), new Class<?>[]{TaskDao.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("getTask")) throw new UnsupportedOperationException(method.getName());
+                    reads++;
+                    Task row = rows.get((Integer) args[0]);
+                    Task read = row == null ? null : new Task(row);
+                    if (duringRead != null) {
+                        duringRead.run();
+                        duringRead = null;
+                    }
+                    return read;
+                });
+    }
+
+    private void store(int id, String title) {
+        Task task = new Task(title, "", Task.Priority.MEDIUM, Task.Importance.MEDIUM, 0);
+        task.setId(id);
+        rows.put(id, task);
+    }
+
+    @Test
+    public void testReadsOnceAndReturnsTheSameInstance() {
+        store(1, "One");
+        TaskCache cache = new TaskCache(dao(), 10);
+
+        Task first = cache.get(1);
+        assertEquals("One", first.getTitle());
+        assertSame(first, cache.get(1));
+        assertSame(first, cache.getIfPresent(1));
+        assertEquals(1, reads);
+    }
+
+    @Test
+    public void testInvalidationDropsEntries() {
+        store(1, "One");
+        TaskCache cache = new TaskCache(dao(), 10);
+        Task before = cache.get(1);
+
+        store(1, "Renamed");
+        cache.invalidate();
+
+        Task after = cache.get(1);
+        assertNotSame(before, after);
+        assertEquals("Renamed", after.getTitle());
+        assertEquals(2, reads);
+    }
+
+    @Test
+    public void testRowReadBeforeAWriteIsNotCached() {
+        store(1, "One");
+        TaskCache cache = new TaskCache(dao(), 10);
+        duringRead = cache::invalidate;
+
+        assertEquals("One", cache.get(1).getTitle());
+        assertNull(cache.getIfPresent(1));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        for (int id = 1; id <= 3; id++) store(id, "Task " + id);
+        TaskCache cache = new TaskCache(dao(), 2);
+
+        cache.get(1);
+        cache.get(2);
+        cache.get(1);
+        cache.get(3);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.getIfPresent(2));
+        assertEquals("Task 1", cache.getIfPresent(1).getTitle());
+    }
+
+    @Test
+    public void testMissingTaskIsNull() {
+        TaskCache cache = new TaskCache(dao(), 10);
+
+        assertNull(cache.get(5));
+        assertEquals(0, cache.size());
+    }
+}
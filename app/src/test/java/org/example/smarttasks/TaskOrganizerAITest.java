@@ -5,9 +5,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(JUnit4.class)
 public class TaskOrganizerAITest {
@@ -54,4 +57,105 @@ public class TaskOrganizerAITest {
         assertEquals("Earlier due", tasks.get(0).getTitle());
         assertEquals("Later due", tasks.get(1).getTitle());
     }
+
+    @Test
+    public void testOrganizeTasksWithWeightsMatchesComparatorOrder() {
+        Random random = new Random(7);
+        long now = System.currentTimeMillis();
+        long dayMs = 24L * 60 * 60 * 1000;
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // Coarse due dates and creation times so that every tie-breaker gets exercised
+            Task task = new Task("Task " + i, "Desc",
+                    Task.Priority.values()[random.nextInt(3)],
+                    Task.Importance.values()[random.nextInt(3)],
+                    now + (random.nextInt(40) - 5) * dayMs + dayMs / 2);
+            task.setCreatedAt(now - random.nextInt(20));
+            if (random.nextBoolean()) {
+                task.setCloudImportance(random.nextInt(10) / 10.0);
+                task.setCloudUrgency(random.nextInt(10) / 10.0);
+            }
+            tasks.add(task);
+        }
+
+        List<Task> expected = new ArrayList<>(tasks);
+        Collections.sort(expected, (t1, t2) -> {
+            int scoreCompare = Integer.compare(TaskOrganizerAI.getTaskPriorityScore(t2, 1, 4, 3),
+                    TaskOrganizerAI.getTaskPriorityScore(t1, 1, 4, 3));
+            if (scoreCompare != 0) return scoreCompare;
+            int dueDateCompare = Long.compare(t1.getDueDate(), t2.getDueDate());
+            if (dueDateCompare != 0) return dueDateCompare;
+            return Long.compare(t1.getCreatedAt(), t2.getCreatedAt());
+        });
+
+        TaskOrganizerAI.organizeTasksWithWeights(tasks, 1, 4, 3);
+
+        assertEquals(expected, tasks);
+    }
+
+    @Test
+    public void testCloudScoresAreBlendedIntoScore() {
+        Task task = new Task("Task", "Desc", Task.Priority.LOW, Task.Importance.LOW, 0);
+        int localOnly = TaskOrganizerAI.getStaticScore(task);
+
+        task.setCloudImportance(0.8);
+        task.setCloudUrgency(0.4);
+
+        assertEquals(localOnly + 6, TaskOrganizerAI.getStaticScore(task));
+        assertEquals("Desc", task.getDescription());
+    }
+
+    @Test
+    public void testParallelRankingMatchesSequential() {
+        Random random = new Random(9);
+        long now = System.currentTimeMillis();
+        long dayMs = 24L * 60 * 60 * 1000;
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            // Whole days and few creation times, so many tasks tie on every key
+            Task task = new Task("Task " + i, "Desc",
+                    Task.Priority.values()[random.nextInt(3)],
+                    Task.Importance.values()[random.nextInt(3)],
+                    now + (random.nextInt(60) - 5) * dayMs);
+            task.setId(i);
+            task.setCreatedAt(random.nextInt(3));
+            tasks.add(task);
+        }
+
+        List<Task> sequential = new ArrayList<>(tasks);
+        TaskOrganizerAI.organizeTasksWithWeights(sequential, 1, 4, 3, false);
+        List<Task> parallel = new ArrayList<>(tasks);
+        TaskOrganizerAI.organizeTasksWithWeights(parallel, 1, 4, 3, true);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(sequential.get(i).getId(), parallel.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testNextDueChangeIsWhereDueStateChanges() {
+        long dayMs = 24L * 60 * 60 * 1000;
+        long now = 1_700_000_000_000L;
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            // Due anywhere from two days ago to 40 days out, at millisecond resolution
+            long due = now + (long) ((random.nextDouble() * 42 - 2) * dayMs);
+            Task task = new Task("Task", "", Task.Priority.MEDIUM, Task.Importance.MEDIUM, due);
+            long t = now;
+            while (true) {
+                long next = TaskOrganizerAI.nextDueChange(task, t);
+                if (next == Long.MAX_VALUE) {
+                    assertEquals(3, TaskOrganizerAI.computeDuePoints(task, t));
+                    assertTrue(TaskOrganizerAI.isTaskUrgent(task, t));
+                    break;
+                }
+                // Unchanged up to the boundary, changed on it
+                assertEquals(TaskOrganizerAI.computeDuePoints(task, t), TaskOrganizerAI.computeDuePoints(task, next - 1));
+                assertEquals(TaskOrganizerAI.isTaskUrgent(task, t), TaskOrganizerAI.isTaskUrgent(task, next - 1));
+                assertTrue(TaskOrganizerAI.computeDuePoints(task, next) != TaskOrganizerAI.computeDuePoints(task, t)
+                        || TaskOrganizerAI.isTaskUrgent(task, next) != TaskOrganizerAI.isTaskUrgent(task, t));
+                t = next;
+            }
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package org.example.smarttasks;
+
+import androidx.sqlite.db.SupportSQLiteQuery;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class TaskQueryTest {
+
+    @Test
+    public void testEmptyQueryMatchesEverything() {
+        List<Object> args = new ArrayList<>();
+        String sql = TaskQuery.all().appendWhere(new StringBuilder(), args);
+
+        assertEquals("1", sql);
+        assertEquals(0, args.size());
+    }
+
+    @Test
+    public void testAllCriteriaAreTranslated() {
+        TaskQuery query = new TaskQuery.Builder()
+                .setStatus(Task.Status.PENDING)
+                .setDueWindow(100L, 200L)
+                .setPriorities(EnumSet.of(Task.Priority.HIGH, Task.Priority.LOW))
+                .setImportances(EnumSet.of(Task.Importance.HIGH))
+                .build();
+        List<Object> args = new ArrayList<>();
+        String sql = query.appendWhere(new StringBuilder(), args);
+
+        assertEquals("status = ? AND dueDate >= ? AND dueDate < ? AND priority IN (?, ?) AND importance IN (?)", sql);
+        assertEquals(Arrays.<Object>asList("PENDING", 100L, 200L, "HIGH", "LOW", "HIGH"), args);
+    }
+
+    @Test
+    public void testBuildUponKeepsOtherCriteria() {
+        TaskQuery query = new TaskQuery.Builder()
+                .setStatus(Task.Status.PENDING)
+                .setPriorities(EnumSet.of(Task.Priority.HIGH))
+                .build();
+        TaskQuery all = query.buildUpon().setStatus(null).build();
+
+        assertEquals(null, all.getStatus());
+        assertEquals(EnumSet.of(Task.Priority.HIGH), all.getPriorities());
+        assertEquals(query, all.buildUpon().setStatus(Task.Status.PENDING).build());
+    }
+
+    @Test
+    public void testUnscoredSelectIsFilteredAndBounded() {
+        SupportSQLiteQuery select = TaskQuery.withStatus(Task.Status.PENDING).toUnscoredSelect(100);
+
+        assertEquals("SELECT * FROM tasks WHERE status = ? AND (cloudImportance IS NULL OR cloudUrgency IS NULL)"
+                + " ORDER BY score DESC, dueDate, createdAt LIMIT ?", select.getSql());
+        assertEquals(2, select.getArgCount());
+    }
+
+    @Test
+    public void testMatchesAgreesWithTheSqlCriteria() {
+        TaskQuery query = new TaskQuery.Builder()
+                .setStatus(Task.Status.PENDING)
+                .setDueWindow(100L, 200L)
+                .setPriorities(EnumSet.of(Task.Priority.HIGH))
+                .build();
+        Task task = new Task("Pay rent", "", Task.Priority.HIGH, Task.Importance.LOW, 100L);
+
+        assertTrue(query.matches(task));
+        task.setDueDate(200L);
+        assertFalse(query.matches(task));
+        task.setDueDate(150L);
+        task.setStatus(Task.Status.COMPLETED);
+        assertFalse(query.matches(task));
+        assertTrue(TaskQuery.all().matches(task));
+    }
+}
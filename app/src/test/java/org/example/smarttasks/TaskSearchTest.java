@@ -0,0 +1,64 @@
+package org.example.smarttasks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class TaskSearchTest {
+
+    /** 'pcx' matchinfo for one term over (title, description). */
+    private static byte[] matchInfo(int titleHits, int descriptionHits, int allTitleHits, int allDescriptionHits) {
+        ByteBuffer info = ByteBuffer.allocate(4 * 8).order(ByteOrder.nativeOrder());
+        info.putInt(1).putInt(2);
+        info.putInt(titleHits).putInt(allTitleHits).putInt(1);
+        info.putInt(descriptionHits).putInt(allDescriptionHits).putInt(1);
+        return info.array();
+    }
+
+    @Test
+    public void testMatchQueryUsesPrefixTerms() {
+        assertEquals("buy* milk*", TaskSearch.toMatchQuery("  Buy MILK"));
+        assertEquals("e* mail* 2024*", TaskSearch.toMatchQuery("e-mail, 2024!"));
+    }
+
+    @Test
+    public void testMatchQueryNeutralizesOperators() {
+        assertEquals("milk* or* not* eggs*", TaskSearch.toMatchQuery("milk OR NOT \"eggs\"*"));
+        assertNull(TaskSearch.toMatchQuery(" -*\" "));
+        assertNull(TaskSearch.toMatchQuery(null));
+    }
+
+    @Test
+    public void testTitleHitsRankHigher() {
+        double inTitle = TaskSearch.rank(matchInfo(1, 0, 10, 10));
+        double inDescription = TaskSearch.rank(matchInfo(0, 1, 10, 10));
+        double rareInDescription = TaskSearch.rank(matchInfo(0, 1, 10, 1));
+
+        assertTrue(inTitle > inDescription);
+        assertTrue(rareInDescription > inDescription);
+    }
+
+    @Test
+    public void testTopIdsKeepsBestInOrder() {
+        List<TaskSearch.Match> matches = new ArrayList<>();
+        for (int id = 1; id <= 1000; id++) {
+            matches.add(new TaskSearch.Match(id, matchInfo(0, 1, 10, 10)));
+        }
+        matches.add(new TaskSearch.Match(2000, matchInfo(1, 1, 10, 10)));
+        matches.add(new TaskSearch.Match(1500, matchInfo(1, 0, 10, 10)));
+
+        assertEquals(Arrays.asList(2000, 1500, 1, 2), TaskSearch.topIds(matches, 4));
+        assertEquals(0, TaskSearch.topIds(new ArrayList<>(), 4).size());
+    }
+}
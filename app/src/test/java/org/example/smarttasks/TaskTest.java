@@ -51,4 +51,24 @@ public class TaskTest {
         assertEquals(Task.Status.COMPLETED, task.getStatus());
         assertEquals(789012, task.getCreatedAt());
     }
+
+    @Test
+    public void testTaskCopy() {
+        Task task = new Task("Title", "Desc", Task.Priority.LOW, Task.Importance.HIGH, 123456);
+        task.setId(7);
+        task.setScore(12);
+        task.setCloudImportance(0.5);
+        task.setUpdatedAt(999);
+
+        Task copy = new Task(task);
+        copy.setStatus(Task.Status.COMPLETED);
+
+        assertEquals(7, copy.getId());
+        assertEquals("Title", copy.getTitle());
+        assertEquals(task.getCreatedAt(), copy.getCreatedAt());
+        assertEquals(999, copy.getUpdatedAt());
+        assertEquals(12, copy.getScore());
+        assertEquals(Double.valueOf(0.5), copy.getCloudImportance());
+        assertEquals(Task.Status.PENDING, task.getStatus());
+    }
 }
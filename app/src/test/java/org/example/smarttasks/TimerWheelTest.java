@@ -0,0 +1,89 @@
+package org.example.smarttasks;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class TimerWheelTest {
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_123L;
+
+    @Test
+    public void testEachKeyFiresOnceWithinATickOfItsDeadline() {
+        Random random = new Random(11);
+        TimerWheel wheel = new TimerWheel(TICK, START);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 2000; key++) {
+            // From the past to well past the first level, some far enough to cascade through all
+            long deadline = START + (long) (Math.pow(random.nextDouble(), 4) * 40L * 24 * 3600 * 1000) - 5000;
+            deadlines.put(key, deadline);
+            wheel.schedule(key, deadline);
+        }
+
+        Map<Integer, Long> fired = new HashMap<>();
+        long now = START;
+        while (wheel.size() > 0) {
+            long wakeup = wheel.nextWakeupMs();
+            // The wakeup never skips a deadline
+            for (Map.Entry<Integer, Long> e : deadlines.entrySet()) {
+                if (!fired.containsKey(e.getKey())) {
+                    assertTrue(wakeup <= Math.max(e.getValue(), now) + TICK);
+                }
+            }
+            now = Math.max(now + 1, wakeup);
+            long at = now;
+            wheel.advance(now, key -> assertEquals(null, fired.put(key, at)));
+        }
+
+        assertEquals(deadlines.keySet(), fired.keySet());
+        for (Map.Entry<Integer, Long> e : fired.entrySet()) {
+            long deadline = deadlines.get(e.getKey());
+            assertTrue(e.getValue() >= deadline);
+            assertTrue(e.getValue() < Math.max(deadline, START) + 2 * TICK);
+        }
+    }
+
+    @Test
+    public void testCancelledAndRescheduledKeys() {
+        TimerWheel wheel = new TimerWheel(TICK, START);
+        wheel.schedule(1, START + 10 * TICK);
+        wheel.schedule(2, START + 10 * TICK);
+        wheel.schedule(3, START + 10 * TICK);
+        wheel.cancel(2);
+        wheel.schedule(3, START + 100_000 * TICK);
+
+        List<Integer> fired = new ArrayList<>();
+        wheel.advance(START + 20 * TICK, fired::add);
+        assertEquals(1, fired.size());
+        assertEquals(1, (int) fired.get(0));
+        assertEquals(1, wheel.size());
+
+        wheel.advance(START + 100_001 * TICK, fired::add);
+        assertEquals(2, fired.size());
+        assertEquals(3, (int) fired.get(1));
+        assertEquals(Long.MAX_VALUE, wheel.nextWakeupMs());
+    }
+
+    @Test
+    public void testDeadlineBeyondTheWheelIsKept() {
+        TimerWheel wheel = new TimerWheel(TICK, START);
+        long far = START + (1L << 32) * TICK;
+        wheel.schedule(7, far);
+
+        List<Integer> fired = new ArrayList<>();
+        wheel.advance(far - TICK, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(far + TICK, fired::add);
+        assertEquals(1, fired.size());
+    }
+}
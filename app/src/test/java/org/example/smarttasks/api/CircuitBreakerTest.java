@@ -0,0 +1,62 @@
+package org.example.smarttasks.api;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class CircuitBreakerTest {
+    private long now;
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 1000, () -> now);
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertTrue(breaker.allowRequest());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void testHalfOpenLetsOneProbeThrough() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, () -> now);
+        breaker.onFailure();
+
+        now = 1000;
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+
+        // Failed probe: open again for a full period
+        breaker.onFailure();
+        now = 1999;
+        assertFalse(breaker.allowRequest());
+        now = 2000;
+        assertTrue(breaker.allowRequest());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testOpenForKeepsTheLongerPause() {
+        CircuitBreaker breaker = new CircuitBreaker(5, 1000, () -> now);
+        breaker.openFor(5000);
+        breaker.openFor(10);
+
+        now = 4999;
+        assertFalse(breaker.allowRequest());
+        now = 5000;
+        assertTrue(breaker.allowRequest());
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.smarttasks.api;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Drives HfClient against a local fake inference endpoint. */
+@RunWith(JUnit4.class)
+public class HfClientTest {
+    private static final String SCORES = "[[{\"label\":\"HIGH\",\"score\":0.9},{\"label\":\"LOW\",\"score\":0.1}]]";
+
+    private static class Reply {
+        final int code;
+        final String body;
+        final String retryAfter;
+
+        Reply(int code, String body, String retryAfter) {
+            this.code = code;
+            this.body = body;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    private HttpServer server;
+    private final Queue<Reply> replies = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private TaskApiService service;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            try (InputStream in = exchange.getRequestBody()) {
+                while (in.read() != -1) {
+                    // Drain the request
+                }
+            }
+            Reply reply = replies.poll();
+            if (reply == null) reply = new Reply(500, "{}", null);
+            if (reply.retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", reply.retryAfter);
+            }
+            byte[] bytes = reply.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(reply.code, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        service = new Retrofit.Builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/")
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(TaskApiService.class);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private HfClient client(int maxAttempts, CircuitBreaker breaker) {
+        return new HfClient(service, 16, 2, true,
+                new RateLimiter(1000, 10, System::nanoTime),
+                new RetryPolicy(maxAttempts, 1, 10, 0.1, 10, new Random(1)),
+                breaker, Runnable::run);
+    }
+
+    /** Runs one single-text batch and returns the scores, or the error message. */
+    private Object score(HfClient client) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        List<Object> outcome = Collections.synchronizedList(new ArrayList<>());
+        client.scoreBatch(Collections.singletonList("Pay rent"), new HfClient.BatchCallback() {
+            @Override
+            public void onBatchScores(int[] indices, List<HfClient.Scores> scores) {
+                outcome.add(scores.get(0));
+            }
+
+            @Override
+            public void onBatchError(int[] indices, String message) {
+                outcome.add(message);
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        return outcome.get(0);
+    }
+
+    @Test
+    public void testModelLoadingIsRetried() throws Exception {
+        replies.add(new Reply(503, "{\"error\":\"Model is currently loading\"}", "0"));
+        replies.add(new Reply(200, SCORES, null));
+
+        Object result = score(client(3, new CircuitBreaker(5, 60_000, System::currentTimeMillis)));
+
+        assertEquals(Double.valueOf(0.9), ((HfClient.Scores) result).importanceHighProb);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testOpenBreakerFailsFastWithoutCallingTheServer() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(2, 60_000, System::currentTimeMillis);
+        HfClient client = client(1, breaker);
+
+        assertEquals("HTTP 500", score(client));
+        assertEquals("HTTP 500", score(client));
+        assertEquals(HfClient.UNAVAILABLE, score(client));
+
+        assertEquals(2, requests.get());
+        assertTrue(client.isUnavailable());
+    }
+
+    @Test
+    public void testLongRetryAfterOpensTheBreaker() throws Exception {
+        replies.add(new Reply(429, "{}", "3600"));
+        HfClient client = client(3, new CircuitBreaker(5, 60_000, System::currentTimeMillis));
+
+        assertEquals("HTTP 429", score(client));
+        assertEquals(HfClient.UNAVAILABLE, score(client));
+        assertEquals(1, requests.get());
+    }
+}
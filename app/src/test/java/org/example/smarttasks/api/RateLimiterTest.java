@@ -0,0 +1,39 @@
+package org.example.smarttasks.api;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class RateLimiterTest {
+    private long nanos;
+
+    @Test
+    public void testBurstThenSpacedReservations() {
+        RateLimiter limiter = new RateLimiter(2, 3, () -> nanos);
+
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        // Queued reservations wait one refill interval (500 ms) each
+        assertEquals(500, limiter.reserve());
+        assertEquals(1000, limiter.reserve());
+    }
+
+    @Test
+    public void testRefillIsCappedAtBurst() {
+        RateLimiter limiter = new RateLimiter(1, 2, () -> nanos);
+        limiter.reserve();
+        limiter.reserve();
+
+        nanos += TimeUnit.MINUTES.toNanos(1);
+
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(1000, limiter.reserve());
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.smarttasks.api;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class RetryPolicyTest {
+
+    @Test
+    public void testBackoffIsJitteredAndCapped() {
+        RetryPolicy policy = new RetryPolicy(5, 100, 1000, 0.1, 10, new Random(42));
+        for (int retry = 1; retry <= 10; retry++) {
+            long ceiling = Math.min(1000, 100L << (retry - 1));
+            for (int i = 0; i < 50; i++) {
+                long delay = policy.delayMs(retry, -1);
+                assertTrue(delay >= 0 && delay <= ceiling);
+            }
+        }
+    }
+
+    @Test
+    public void testRetryAfterIsAMinimum() {
+        RetryPolicy policy = new RetryPolicy(5, 100, 1000, 0.1, 10, new Random(42));
+
+        assertTrue(policy.delayMs(1, 5000) >= 5000);
+        assertEquals(3000, RetryPolicy.parseRetryAfter("3", 0));
+        assertEquals(2000, RetryPolicy.parseRetryAfter("Thu, 01 Jan 1970 00:00:12 GMT", 10_000));
+        assertEquals(-1, RetryPolicy.parseRetryAfter("soon", 0));
+        assertEquals(-1, RetryPolicy.parseRetryAfter(null, 0));
+    }
+
+    @Test
+    public void testBudgetRefillsFromSuccesses() {
+        RetryPolicy policy = new RetryPolicy(5, 100, 1000, 0.5, 2, new Random(42));
+
+        assertTrue(policy.tryAcquireRetry());
+        assertTrue(policy.tryAcquireRetry());
+        assertFalse(policy.tryAcquireRetry());
+        policy.onSuccess();
+        assertFalse(policy.tryAcquireRetry());
+        policy.onSuccess();
+        assertTrue(policy.tryAcquireRetry());
+    }
+
+    @Test
+    public void testRetryableCodes() {
+        assertTrue(RetryPolicy.isRetryable(429));
+        assertTrue(RetryPolicy.isRetryable(503));
+        assertFalse(RetryPolicy.isRetryable(400));
+        assertFalse(RetryPolicy.isRetryable(401));
+    }
+}
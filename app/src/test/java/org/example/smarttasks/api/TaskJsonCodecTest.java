@@ -0,0 +1,78 @@
+package org.example.smarttasks.api;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.example.smarttasks.Task;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class TaskJsonCodecTest {
+
+    @Test
+    public void testTaskRoundTrip() throws IOException {
+        Task task = new Task("Title", null, Task.Priority.HIGH, Task.Importance.LOW, 123);
+        task.setId(5);
+        task.setStatus(Task.Status.COMPLETED);
+        task.setCreatedAt(100);
+        task.setUpdatedAt(200);
+
+        StringWriter out = new StringWriter();
+        TaskJsonCodec.writeTask(new JsonWriter(out), task);
+        Task read = TaskJsonCodec.readTask(new JsonReader(new StringReader(out.toString())));
+
+        assertEquals(5, read.getId());
+        assertEquals("Title", read.getTitle());
+        assertNull(read.getDescription());
+        assertEquals(Task.Priority.HIGH, read.getPriority());
+        assertEquals(Task.Importance.LOW, read.getImportance());
+        assertEquals(123, read.getDueDate());
+        assertEquals(Task.Status.COMPLETED, read.getStatus());
+        assertEquals(100, read.getCreatedAt());
+        assertEquals(200, read.getUpdatedAt());
+    }
+
+    @Test
+    public void testReadDeltaStreamsEntriesInAnyOrder() throws IOException {
+        String json = "{\"syncToken\":\"t2\",\"unknown\":[1,2],"
+                + "\"tasks\":[{\"id\":1,\"title\":\"A\",\"priority\":\"LOW\",\"importance\":\"HIGH\","
+                + "\"status\":\"PENDING\",\"updatedAt\":9,\"extra\":{}}],"
+                + "\"deleted\":[{\"id\":2,\"deletedAt\":7}],\"hasMore\":true}";
+        List<Task> tasks = new ArrayList<>();
+        List<Long> tombstones = new ArrayList<>();
+
+        TaskJsonCodec.DeltaEnd end = TaskJsonCodec.readDelta(new JsonReader(new StringReader(json)),
+                new TaskJsonCodec.DeltaHandler() {
+                    @Override
+                    public void onTask(Task task) {
+                        tasks.add(task);
+                    }
+
+                    @Override
+                    public void onTombstone(int id, long deletedAt) {
+                        assertFalse(tasks.isEmpty());
+                        tombstones.add((long) id);
+                        tombstones.add(deletedAt);
+                    }
+                });
+
+        assertEquals("t2", end.syncToken);
+        assertTrue(end.hasMore);
+        assertEquals(1, tasks.size());
+        assertEquals(9, tasks.get(0).getUpdatedAt());
+        assertEquals(2L, (long) tombstones.get(0));
+        assertEquals(7L, (long) tombstones.get(1));
+    }
+}
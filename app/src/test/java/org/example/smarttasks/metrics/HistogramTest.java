@@ -0,0 +1,66 @@
+package org.example.smarttasks.metrics;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class HistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        Histogram histogram = new Histogram(false);
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(0.99));
+        assertEquals(0.0, histogram.mean(), 0.0);
+    }
+
+    @Test
+    public void testCountMeanAndMax() {
+        Histogram histogram = new Histogram(false);
+        histogram.record(10);
+        histogram.record(20);
+        histogram.record(30);
+
+        assertEquals(3, histogram.count());
+        assertEquals(20.0, histogram.mean(), 0.0);
+        assertEquals(30, histogram.max());
+    }
+
+    @Test
+    public void testPercentilesAreWithinAFactorOfTwo() {
+        Histogram histogram = new Histogram(false);
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        long p50 = histogram.percentile(0.5);
+        long p99 = histogram.percentile(0.99);
+        assertTrue("p50 " + p50, p50 >= 500 && p50 < 1000);
+        assertTrue("p99 " + p99, p99 >= 990 && p99 <= 1000);
+        // Never above the largest value seen
+        assertEquals(1000, histogram.percentile(1.0));
+    }
+
+    @Test
+    public void testNegativeValuesCountAsZero() {
+        Histogram histogram = new Histogram(false);
+        histogram.record(-5);
+
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.percentile(0.5));
+    }
+
+    @Test
+    public void testTimerSummaryIsInMilliseconds() {
+        Histogram timer = new Histogram(true);
+        timer.record(2_000_000);
+
+        assertTrue(timer.summary(), timer.summary().contains("max=2.00ms"));
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.smarttasks.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class MetricsTest {
+
+    @After
+    public void tearDown() {
+        Metrics.get().reset();
+    }
+
+    @Test
+    public void testInstrumentsAreRegisteredOncePerName() {
+        Metrics metrics = Metrics.get();
+
+        assertSame(metrics.counter("test.counter"), metrics.counter("test.counter"));
+        assertSame(metrics.gauge("test.gauge"), metrics.gauge("test.gauge"));
+        assertSame(metrics.timer("test.timer"), metrics.timer("test.timer"));
+    }
+
+    @Test
+    public void testDumpListsEveryInstrumentSortedByName() {
+        Metrics metrics = Metrics.get();
+        metrics.counter("test.b.counter").add(3);
+        metrics.gauge("test.a.gauge").set(7);
+        metrics.histogram("test.c.size").record(5);
+
+        String dump = metrics.dump();
+
+        int gauge = dump.indexOf("test.a.gauge gauge 7\n");
+        int counter = dump.indexOf("test.b.counter counter 3\n");
+        int histogram = dump.indexOf("test.c.size histogram count=1");
+        assertTrue(dump, gauge >= 0 && counter > gauge && histogram > counter);
+    }
+
+    @Test
+    public void testResetZeroesButKeepsInstruments() {
+        Counter counter = Metrics.get().counter("test.reset");
+        counter.add(5);
+
+        Metrics.get().reset();
+        counter.inc();
+
+        assertEquals(1, Metrics.get().counter("test.reset").get());
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.smarttasks.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class TracerTest {
+    private final List<String> logged = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        Tracer.configure(Tracer.Level.OFF, 1.0, (tag, message) -> { });
+    }
+
+    @Test
+    public void testDisabledLevelNeverBuildsTheMessage() {
+        Tracer.configure(Tracer.Level.INFO, 1.0, (tag, message) -> logged.add(message));
+
+        Tracer.debug("Test", () -> {
+            throw new AssertionError("message built while DEBUG is off");
+        });
+        Tracer.info("Test", () -> "shown");
+
+        assertEquals(1, logged.size());
+        assertEquals("shown", logged.get(0));
+    }
+
+    @Test
+    public void testOffLogsNothing() {
+        Tracer.configure(Tracer.Level.OFF, 1.0, (tag, message) -> logged.add(message));
+
+        Tracer.info("Test", () -> "hidden");
+
+        assertTrue(logged.isEmpty());
+    }
+
+    @Test
+    public void testDebugTracesAreSampled() {
+        Tracer.configure(Tracer.Level.DEBUG, 0.0, (tag, message) -> logged.add(message));
+        for (int i = 0; i < 100; i++) {
+            Tracer.debug("Test", () -> "sampled out");
+        }
+        assertTrue(logged.isEmpty());
+
+        Tracer.configure(Tracer.Level.DEBUG, 1.0, (tag, message) -> logged.add(message));
+        Tracer.debug("Test", () -> "sampled in");
+        assertEquals(1, logged.size());
+    }
+}
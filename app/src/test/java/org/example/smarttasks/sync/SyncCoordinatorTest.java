@@ -0,0 +1,192 @@
+package org.example.smarttasks.sync;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class SyncCoordinatorTest {
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final List<String> results = new CopyOnWriteArrayList<>();
+    private final CountDownLatch delivered = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        worker.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    private SyncCoordinator coordinator(SyncCoordinator.Job job, long timeoutMs) {
+        SyncCoordinator coordinator = new SyncCoordinator(job, worker, timer, Runnable::run, timeoutMs);
+        coordinator.setListener(new SyncCoordinator.Listener() {
+            @Override
+            public void onSuccess(int changedTasks) {
+                results.add("ok " + changedTasks);
+                delivered.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                results.add(message);
+                delivered.countDown();
+            }
+        });
+        return coordinator;
+    }
+
+    @Test
+    public void testRequestsDuringRunShareOneFollowUp() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SyncCoordinator coordinator = coordinator(cancellation -> {
+            int run = runs.incrementAndGet();
+            started.countDown();
+            release.await();
+            return run;
+        }, 10_000);
+
+        assertTrue(coordinator.request());
+        started.await(5, TimeUnit.SECONDS);
+        assertFalse(coordinator.request());
+        assertFalse(coordinator.request());
+        assertFalse(coordinator.request());
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((coordinator.isRunning() || results.size() < 2) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, runs.get());
+        assertEquals("ok 1", results.get(0));
+        assertEquals("ok 2", results.get(1));
+    }
+
+    @Test
+    public void testRunHasEndedWhenItsResultArrives() throws Exception {
+        List<Boolean> runningAtDelivery = new CopyOnWriteArrayList<>();
+        SyncCoordinator[] coordinator = new SyncCoordinator[1];
+        coordinator[0] = new SyncCoordinator(cancellation -> 3, worker, timer, Runnable::run, 10_000);
+        coordinator[0].setListener(new SyncCoordinator.Listener() {
+            @Override
+            public void onSuccess(int changedTasks) {
+                runningAtDelivery.add(coordinator[0].isRunning());
+                delivered.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                delivered.countDown();
+            }
+        });
+
+        coordinator[0].request();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(false), runningAtDelivery);
+    }
+
+    @Test
+    public void testCancelAbortsRun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        SyncCoordinator coordinator = coordinator(cancellation -> {
+            started.countDown();
+            Thread.sleep(10_000);
+            return 0;
+        }, 10_000);
+
+        coordinator.request();
+        started.await(5, TimeUnit.SECONDS);
+        coordinator.cancel();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals("Sync cancelled", results.get(0));
+    }
+
+    @Test
+    public void testCancelWhileQueuedBehindBusyWorker() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // Stands in for a background flush holding the worker
+        worker.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        AtomicInteger runs = new AtomicInteger();
+        SyncCoordinator coordinator = coordinator(cancellation -> runs.incrementAndGet(), 10_000);
+
+        assertTrue(coordinator.request());
+        coordinator.cancel();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals("Sync cancelled", results.get(0));
+        assertFalse(coordinator.isRunning());
+        release.countDown();
+        assertTrue(coordinator.request());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coordinator.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, runs.get());
+        assertEquals("ok 1", results.get(1));
+    }
+
+    @Test
+    public void testTimeoutCancelsQueuedRun() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        worker.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        SyncCoordinator coordinator = coordinator(cancellation -> 0, 50);
+
+        coordinator.request();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals("Sync timed out", results.get(0));
+        // Cleared on the timer thread right after the delivery
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coordinator.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(coordinator.isRunning());
+        release.countDown();
+    }
+
+    @Test
+    public void testTimeoutCancelsRun() throws Exception {
+        CountDownLatch hookRan = new CountDownLatch(1);
+        SyncCoordinator coordinator = coordinator(cancellation -> {
+            // Stands in for a blocking network call aborted by Call.cancel()
+            cancellation.onCancel(hookRan::countDown);
+            Thread.sleep(10_000);
+            return 0;
+        }, 50);
+
+        coordinator.request();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals("Sync timed out", results.get(0));
+        assertTrue(hookRan.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.smarttasks.sync;
+
+import org.example.smarttasks.PendingOp;
+import org.example.smarttasks.Task;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class TaskMergerTest {
+
+    private static Task task(int id, long updatedAt) {
+        Task task = new Task("Task " + id, "", Task.Priority.MEDIUM, Task.Importance.MEDIUM, 0);
+        task.setId(id);
+        task.setUpdatedAt(updatedAt);
+        return task;
+    }
+
+    @Test
+    public void testLastWriterWins() {
+        List<Task> local = Arrays.asList(task(1, 200), task(2, 100), task(3, 100));
+        List<Task> server = Arrays.asList(task(1, 100), task(2, 200), task(3, 100), task(4, 100));
+
+        TaskMerger.Result result = TaskMerger.merge(local, server, Collections.emptyMap(),
+                Collections.emptyMap(), Collections.emptySet());
+
+        assertEquals(TaskMerger.Outcome.KEPT_LOCAL, result.outcomes.get(1));
+        assertEquals(TaskMerger.Outcome.TOOK_SERVER, result.outcomes.get(2));
+        // Ties go to the server
+        assertEquals(TaskMerger.Outcome.TOOK_SERVER, result.outcomes.get(3));
+        assertEquals(TaskMerger.Outcome.TOOK_SERVER, result.outcomes.get(4));
+        assertEquals(Arrays.asList(1), result.toPush);
+        assertEquals(3, result.toUpsert.size());
+    }
+
+    @Test
+    public void testTombstones() {
+        List<Task> local = Arrays.asList(task(1, 100), task(2, 300));
+        Map<Integer, Long> serverTombstones = new HashMap<>();
+        serverTombstones.put(1, 200L);
+        serverTombstones.put(2, 200L);
+        Map<Integer, Long> localTombstones = new HashMap<>();
+        localTombstones.put(3, 500L);
+
+        TaskMerger.Result result = TaskMerger.merge(local, Arrays.asList(task(3, 400)), serverTombstones,
+                localTombstones, new HashSet<>(Arrays.asList(3)));
+
+        assertEquals(Arrays.asList(1), result.toDelete);
+        // Edited after the remote delete: kept and pushed again
+        assertEquals(TaskMerger.Outcome.KEPT_LOCAL, result.outcomes.get(2));
+        assertTrue(result.toPush.contains(2));
+        // Newer local delete beats the server update
+        assertEquals(TaskMerger.Outcome.CONFLICT, result.outcomes.get(3));
+        assertTrue(result.toUpsert.isEmpty());
+    }
+
+    @Test
+    public void testLocalDeleteAfterAServerEditWins() {
+        // Local edit at 100, server edit at 500, local delete at 1000
+        PendingOp op = PendingOp.next(null, 1, PendingOp.Op.UPDATE, "edit", 100);
+        op = PendingOp.next(op, 1, PendingOp.Op.DELETE, "delete", 1000);
+        Map<Integer, Long> localTombstones = new HashMap<>();
+        localTombstones.put(1, op.getEnqueuedAt());
+
+        TaskMerger.Result result = TaskMerger.merge(Collections.emptyList(), Arrays.asList(task(1, 500)),
+                Collections.emptyMap(), localTombstones, new HashSet<>(Arrays.asList(1)));
+
+        assertEquals(TaskMerger.Outcome.CONFLICT, result.outcomes.get(1));
+        assertTrue(result.toUpsert.isEmpty());
+    }
+
+    @Test
+    public void testLargeMergeIsLinear() {
+        int n = 50000;
+        List<Task> local = new ArrayList<>(n);
+        List<Task> server = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            local.add(task(i, i % 2 == 0 ? 2 : 1));
+            server.add(task(i, 1));
+        }
+
+        TaskMerger.Result result = TaskMerger.merge(local, server, Collections.emptyMap(),
+                Collections.emptyMap(), Collections.emptySet());
+
+        assertEquals(n / 2, result.count(TaskMerger.Outcome.KEPT_LOCAL));
+        assertEquals(n / 2, result.count(TaskMerger.Outcome.TOOK_SERVER));
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.smarttasks.benchmark;
+
+import org.example.smarttasks.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Status filtering as TaskListActivity once did after every ranking pass. The app now filters in
+ * SQL, so the filter lives here only to keep the comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FilterBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"PENDING", "COMPLETED"})
+    public Task.Status status;
+
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = TaskFixtures.generate(taskCount, TaskFixtures.CloudMix.NONE, 42);
+    }
+
+    @Benchmark
+    public List<Task> baselineStreamFilter() {
+        return LegacyOrganizer.filterTasks(tasks, status);
+    }
+
+    @Benchmark
+    public List<Task> filterByStatus() {
+        return filterByStatus(tasks, status);
+    }
+
+    /** Keeps only the tasks with the given status, preserving order; null keeps every task. */
+    static List<Task> filterByStatus(List<Task> tasks, Task.Status status) {
+        if (status == null) {
+            return tasks;
+        }
+        return tasks.stream()
+                .filter(task -> task.getStatus() == status)
+                .collect(Collectors.toList());
+    }
+}
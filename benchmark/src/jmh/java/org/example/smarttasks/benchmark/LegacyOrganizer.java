@@ -0,0 +1,106 @@
+package org.example.smarttasks.benchmark;
+
+import org.example.smarttasks.Task;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Baseline: the original comparator-driven sort, scoring and stream filter, copied from the
+ * app before any optimization so every run reports the old cost next to the current one.
+ * Scoring reads the clock and parses the {@code [IMP:..][URG:..]} description tags on every
+ * call, as the original did; nothing here calls into the current organizer.
+ */
+final class LegacyOrganizer {
+    private LegacyOrganizer() { }
+
+    static void organizeTasksWithWeights(List<Task> tasks, int importanceWeight, int priorityWeight, int dueWeight) {
+        if (tasks == null || tasks.isEmpty()) return;
+        Collections.sort(tasks, new Comparator<Task>() {
+            @Override
+            public int compare(Task t1, Task t2) {
+                int score1 = getTaskPriorityScore(t1, importanceWeight, priorityWeight, dueWeight);
+                int score2 = getTaskPriorityScore(t2, importanceWeight, priorityWeight, dueWeight);
+                int scoreCompare = Integer.compare(score2, score1);
+                if (scoreCompare != 0) {
+                    return scoreCompare;
+                }
+                int dueDateCompare = Long.compare(t1.getDueDate(), t2.getDueDate());
+                if (dueDateCompare != 0) {
+                    return dueDateCompare;
+                }
+                return Long.compare(t1.getCreatedAt(), t2.getCreatedAt());
+            }
+        });
+    }
+
+    static int getTaskPriorityScore(Task task, int importanceWeight, int priorityWeight, int dueWeight) {
+        int importancePoints = mapImportance(task.getImportance());
+        int priorityPoints = mapPriority(task.getPriority());
+        int duePoints = computeDuePoints(task);
+
+        int score = importanceWeight * importancePoints
+                + priorityWeight * priorityPoints
+                + dueWeight * duePoints;
+
+        try {
+            String desc = task.getDescription();
+            if (desc != null && desc.startsWith("[IMP:")) {
+                int impStart = desc.indexOf("[IMP:") + 5;
+                int impEnd = desc.indexOf("]", impStart);
+                int urgStart = desc.indexOf("[URG:") + 5;
+                int urgEnd = desc.indexOf("]", urgStart);
+                double imp = Double.parseDouble(desc.substring(impStart, impEnd));
+                double urg = Double.parseDouble(desc.substring(urgStart, urgEnd));
+                score += (int) Math.round(0.5 * (imp * 10) + 0.5 * (urg * 10));
+            }
+        } catch (Exception ignored) { }
+
+        return score;
+    }
+
+    static boolean isTaskUrgent(Task task) {
+        long currentTime = System.currentTimeMillis();
+        long threeDaysInMillis = 3 * 24 * 60 * 60 * 1000L;
+        return (task.getDueDate() - currentTime) <= threeDaysInMillis;
+    }
+
+    private static int mapImportance(Task.Importance imp) {
+        switch (imp) {
+            case HIGH: return 3;
+            case MEDIUM: return 2;
+            case LOW: return 1;
+            default: return 0;
+        }
+    }
+
+    private static int mapPriority(Task.Priority pr) {
+        switch (pr) {
+            case HIGH: return 3;
+            case MEDIUM: return 2;
+            case LOW: return 1;
+            default: return 0;
+        }
+    }
+
+    private static int computeDuePoints(Task task) {
+        long now = System.currentTimeMillis();
+        long diff = task.getDueDate() - now;
+        long dayMs = 24L * 60 * 60 * 1000;
+        long days = (long) Math.floor((double) diff / dayMs);
+        if (days <= 3) return 3;
+        if (days <= 7) return 2;
+        if (days <= 30) return 1;
+        return 0;
+    }
+
+    static List<Task> filterTasks(List<Task> tasks, Task.Status currentFilter) {
+        if (currentFilter == null) {
+            return tasks;
+        }
+        return tasks.stream()
+                .filter(task -> task.getStatus() == currentFilter)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.smarttasks.benchmark;
+
+import org.example.smarttasks.Task;
+import org.example.smarttasks.TaskOrganizerAI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full ranking of a shuffled list. Every method copies the input first so all of them
+ * pay the same copy cost; compare against {@link #baselineComparatorSort}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrganizerBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"NONE", "HALF", "ALL"})
+    public TaskFixtures.CloudMix cloudMix;
+
+    @Param({"3,2,2", "1,1,1", "5,1,3"})
+    public String weights;
+
+    private List<Task> shuffled;
+    private List<Task> preRanked;
+    private int[] w;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shuffled = TaskFixtures.generate(taskCount, cloudMix, 42);
+        w = TaskFixtures.parseWeights(weights);
+        preRanked = new ArrayList<>(shuffled);
+        Collections.sort(preRanked, Comparator.comparingInt((Task t) -> -t.getScore())
+                .thenComparingLong(Task::getDueDate)
+                .thenComparingLong(Task::getCreatedAt));
+    }
+
+    @Benchmark
+    public List<Task> baselineComparatorSort() {
+        List<Task> tasks = new ArrayList<>(shuffled);
+        LegacyOrganizer.organizeTasksWithWeights(tasks, w[0], w[1], w[2]);
+        return tasks;
+    }
+
+    @Benchmark
+    public List<Task> organizeTasksWithWeights() {
+        List<Task> tasks = new ArrayList<>(shuffled);
+        TaskOrganizerAI.organizeTasksWithWeights(tasks, w[0], w[1], w[2]);
+        return tasks;
+    }
+
+    /** Rows as the DAO returns them; only due points are applied (default weights). */
+    @Benchmark
+    public List<Task> organizeRankedTasks() {
+        List<Task> tasks = new ArrayList<>(preRanked);
+        StoredOrderRanker.organizeRankedTasks(tasks);
+        return tasks;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.smarttasks.benchmark;
+
+import org.example.smarttasks.RankedIndex;
+import org.example.smarttasks.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-ranking after a single edit: one {@link RankedIndex} update against re-ranking the whole
+ * list, plus reading one adapter page from the index and a due refresh when no boundary has
+ * passed (the steady state between changes). The load benchmarks fill a new index as the
+ * repository does for a query: one insert per task against the sorted bulk build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RankedIndexBenchmark {
+    private static final int PAGE_SIZE = 50;
+    // The persisted order: score DESC, dueDate, createdAt
+    private static final Comparator<Task> STORED_ORDER = Comparator.comparingInt((Task t) -> -t.getScore())
+            .thenComparingLong(Task::getDueDate)
+            .thenComparingLong(Task::getCreatedAt);
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int taskCount;
+
+    private List<Task> tasks;
+    private List<Task> preRanked;
+    private RankedIndex index;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = TaskFixtures.generate(taskCount, TaskFixtures.CloudMix.HALF, 42);
+        index = new RankedIndex(System::currentTimeMillis);
+        index.putAll(tasks);
+        preRanked = new ArrayList<>(tasks);
+        Collections.sort(preRanked, STORED_ORDER);
+    }
+
+    /**
+     * One task changes score; the rows are read back in the new stored order, as the DAO query
+     * returned them, and the list is ranked again from there.
+     */
+    @Benchmark
+    public List<Task> baselineFullRerank() {
+        next = (next + 1) % taskCount;
+        Task edited = tasks.get(next);
+        preRanked.remove(edited);
+        edited.setScore(edited.getScore() ^ 1);
+        int at = Collections.binarySearch(preRanked, edited, STORED_ORDER);
+        preRanked.add(at < 0 ? -at - 1 : at, edited);
+        List<Task> ranked = new ArrayList<>(preRanked);
+        StoredOrderRanker.organizeRankedTasks(ranked);
+        return ranked;
+    }
+
+    /** One task changes score and is moved in the index; returns its new position. */
+    @Benchmark
+    public int reRankOneEdit() {
+        next = (next + 1) % taskCount;
+        Task edited = tasks.get(next);
+        edited.setScore(edited.getScore() ^ 1);
+        index.put(edited);
+        return index.indexOf(edited.getId());
+    }
+
+    @Benchmark
+    public RankedIndex baselineLoadByInserts() {
+        RankedIndex loaded = new RankedIndex(System::currentTimeMillis);
+        for (Task task : tasks) {
+            loaded.put(task);
+        }
+        return loaded;
+    }
+
+    @Benchmark
+    public RankedIndex loadSequential() {
+        RankedIndex loaded = new RankedIndex(System::currentTimeMillis);
+        loaded.putAll(tasks, Integer.MAX_VALUE);
+        return loaded;
+    }
+
+    @Benchmark
+    public RankedIndex loadParallel() {
+        RankedIndex loaded = new RankedIndex(System::currentTimeMillis);
+        loaded.putAll(tasks, 0);
+        return loaded;
+    }
+
+    @Benchmark
+    public List<Task> readPage() {
+        next = (next + PAGE_SIZE) % taskCount;
+        return index.range(next, PAGE_SIZE);
+    }
+
+    /** Returns how many tasks crossed a due boundary, almost always none. */
+    @Benchmark
+    public int refreshDueIdle() {
+        return index.refreshDue();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.smarttasks.benchmark;
+
+import org.example.smarttasks.Task;
+import org.example.smarttasks.TaskOrganizerAI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential against parallel full ranking around {@link TaskOrganizerAI#PARALLEL_THRESHOLD}.
+ * The sizes where {@link #parallel} starts to win are the crossover; run it with
+ * {@code -PjmhJvmArgs=-XX:ActiveProcessorCount=4} (or 8) to see it for other core counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RankingBenchmark {
+
+    @Param({"1000", "5000", "10000", "20000", "50000", "100000", "1000000"})
+    public int taskCount;
+
+    private List<Task> shuffled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shuffled = TaskFixtures.generate(taskCount, TaskFixtures.CloudMix.HALF, 42);
+    }
+
+    @Benchmark
+    public List<Task> sequential() {
+        List<Task> tasks = new ArrayList<>(shuffled);
+        TaskOrganizerAI.organizeTasksWithWeights(tasks, 3, 2, 2, Integer.MAX_VALUE);
+        return tasks;
+    }
+
+    @Benchmark
+    public List<Task> parallel() {
+        List<Task> tasks = new ArrayList<>(shuffled);
+        TaskOrganizerAI.organizeTasksWithWeights(tasks, 3, 2, 2, 0);
+        return tasks;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.smarttasks.benchmark;
+
+import org.example.smarttasks.Task;
+import org.example.smarttasks.TaskOrganizerAI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Per-task scoring and urgency checks, i.e. what every comparison and every bind pays. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ScoringBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"NONE", "HALF", "ALL"})
+    public TaskFixtures.CloudMix cloudMix;
+
+    @Param({"3,2,2", "1,1,1", "5,1,3"})
+    public String weights;
+
+    private List<Task> tasks;
+    private int[] w;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = TaskFixtures.generate(taskCount, cloudMix, 42);
+        w = TaskFixtures.parseWeights(weights);
+    }
+
+    @Benchmark
+    public long baselineGetTaskPriorityScore() {
+        long sum = 0;
+        for (Task task : tasks) {
+            sum += LegacyOrganizer.getTaskPriorityScore(task, w[0], w[1], w[2]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long getTaskPriorityScore() {
+        long sum = 0;
+        for (Task task : tasks) {
+            sum += TaskOrganizerAI.getTaskPriorityScore(task, w[0], w[1], w[2]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int baselineIsTaskUrgent() {
+        int urgent = 0;
+        for (Task task : tasks) {
+            if (LegacyOrganizer.isTaskUrgent(task)) urgent++;
+        }
+        return urgent;
+    }
+
+    @Benchmark
+    public int isTaskUrgent() {
+        int urgent = 0;
+        for (Task task : tasks) {
+            if (TaskOrganizerAI.isTaskUrgent(task)) urgent++;
+        }
+        return urgent;
+    }
+}
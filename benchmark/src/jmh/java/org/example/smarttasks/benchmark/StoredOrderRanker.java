@@ -0,0 +1,67 @@
+package org.example.smarttasks.benchmark;
+
+import org.example.smarttasks.Task;
+import java.util.List;
+
+/**
+ * Finishes ranking a list that is already ordered by the persisted score (score DESC, dueDate,
+ * createdAt), as the app did before the ranked index. Only the due points are computed: within
+ * one due bucket the stored order is already final, so the result is a linear merge of at most
+ * four runs. Same order as {@code TaskOrganizerAI.organizeTasks}.
+ */
+final class StoredOrderRanker {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final int DUE_WEIGHT = 2;
+
+    private StoredOrderRanker() {
+    }
+
+    static void organizeRankedTasks(List<Task> tasks) {
+        if (tasks == null || tasks.size() < 2) return;
+        long now = System.currentTimeMillis();
+        int n = tasks.size();
+        Task[] ranked = tasks.toArray(new Task[0]);
+
+        // Stable counting sort by due bucket: each run keeps the stored order
+        byte[] bucket = new byte[n];
+        int[] runStart = new int[5];
+        for (int i = 0; i < n; i++) {
+            bucket[i] = (byte) duePoints(ranked[i], now);
+            runStart[bucket[i] + 1]++;
+        }
+        for (int b = 0; b < 4; b++) runStart[b + 1] += runStart[b];
+        int[] runPos = runStart.clone();
+        int[] runs = new int[n];
+        for (int i = 0; i < n; i++) runs[runPos[bucket[i]]++] = i;
+
+        // Merge the runs on (score + due points) DESC, dueDate, createdAt
+        int[] head = runStart.clone();
+        for (int out = 0; out < n; out++) {
+            int best = -1;
+            for (int b = 0; b < 4; b++) {
+                if (head[b] == runStart[b + 1]) continue;
+                if (best < 0 || rankedBefore(ranked[runs[head[b]]], b, ranked[runs[head[best]]], best)) {
+                    best = b;
+                }
+            }
+            tasks.set(out, ranked[runs[head[best]++]]);
+        }
+    }
+
+    private static boolean rankedBefore(Task t1, int due1, Task t2, int due2) {
+        int scoreCompare = Integer.compare(t2.getScore() + DUE_WEIGHT * due2, t1.getScore() + DUE_WEIGHT * due1);
+        if (scoreCompare != 0) return scoreCompare < 0;
+        int dueDateCompare = Long.compare(t1.getDueDate(), t2.getDueDate());
+        if (dueDateCompare != 0) return dueDateCompare < 0;
+        return t1.getCreatedAt() < t2.getCreatedAt();
+    }
+
+    /** Due points as the organizer computes them: 3 within three days or overdue, down to 0. */
+    private static int duePoints(Task task, long now) {
+        long days = Math.floorDiv(task.getDueDate() - now, DAY_MS);
+        if (days <= 3) return 3;
+        if (days <= 7) return 2;
+        if (days <= 30) return 1;
+        return 0;
+    }
+}
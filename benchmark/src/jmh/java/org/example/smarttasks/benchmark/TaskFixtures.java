@@ -0,0 +1,51 @@
+package org.example.smarttasks.benchmark;
+
+import org.example.smarttasks.Task;
+import org.example.smarttasks.TaskOrganizerAI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/** Deterministic task sets for the benchmarks. */
+final class TaskFixtures {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    /** How many tasks carry cloud importance/urgency probabilities. */
+    enum CloudMix { NONE, HALF, ALL }
+
+    private TaskFixtures() { }
+
+    static List<Task> generate(int count, CloudMix cloudMix, long seed) {
+        Random random = new Random(seed);
+        long now = System.currentTimeMillis();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("Task " + i, "Generated task description " + i,
+                    Task.Priority.values()[random.nextInt(3)],
+                    Task.Importance.values()[random.nextInt(3)],
+                    now + (random.nextInt(90) - 10) * DAY_MS + random.nextInt((int) DAY_MS));
+            task.setId(i + 1);
+            task.setCreatedAt(now - random.nextInt(365) * DAY_MS);
+            task.setStatus(random.nextInt(4) == 0 ? Task.Status.COMPLETED : Task.Status.PENDING);
+            if (cloudMix == CloudMix.ALL || (cloudMix == CloudMix.HALF && random.nextBoolean())) {
+                double importance = random.nextDouble();
+                double urgency = random.nextDouble();
+                task.setCloudImportance(importance);
+                task.setCloudUrgency(urgency);
+                task.setScoredAt(now);
+                // How the original app carried cloud scores, so the legacy baseline parses them
+                task.setDescription(String.format(Locale.ROOT, "[IMP:%.3f][URG:%.3f] %s",
+                        importance, urgency, task.getDescription()));
+            }
+            task.setScore(TaskOrganizerAI.getStaticScore(task));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    static int[] parseWeights(String weights) {
+        String[] parts = weights.split(",");
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+    }
+}
@@ -12,3 +12,4 @@ plugins {
 
 rootProject.name = "java_prjt"
 include("app")
+include("benchmark")